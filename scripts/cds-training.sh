@@ -0,0 +1,16 @@
+#!/usr/bin/env bash
+# Records the class-data-sharing archive of an extracted fast-start build. Starts the application with
+# its AOT-generated context and the production profile, exits once the context is refreshed, and dumps
+# the classes loaded so far to application.jsa. An in-memory H2 database stands in for PostgreSQL, so
+# no database is needed during the build.
+#
+#   scripts/cds-training.sh <extracted directory>
+set -euo pipefail
+
+cd "$1"
+java -Xlog:cds=error -XX:ArchiveClassesAtExit=application.jsa -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+    -jar application.jar \
+    --spring.profiles.active=docker \
+    --spring.datasource.url=jdbc:h2:mem:training \
+    --spring.datasource.driver-class-name=org.h2.Driver \
+    --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect
@@ -0,0 +1,54 @@
+#!/usr/bin/env bash
+# Compares time-to-first-request of the plain executable jar with the fast-start layout (Spring AOT and
+# the class-data-sharing archive). Each variant is launched RUNS times; a run lasts from launching the
+# JVM until the health endpoint first answers 200. Both use the production profile on in-memory H2.
+#
+#   scripts/startup-time.sh <executable jar> <extracted directory> [runs]
+set -euo pipefail
+
+JAR=$(realpath "$1")
+DIR=$(realpath "$2")
+RUNS=${3:-3}
+PORT=${STARTUP_PORT:-18080}
+APP_ARGS=(
+    --server.port="$PORT"
+    --spring.profiles.active=docker
+    --spring.datasource.url=jdbc:h2:mem:startup
+    --spring.datasource.driver-class-name=org.h2.Driver
+    --spring.jpa.database-platform=org.hibernate.dialect.H2Dialect
+)
+
+# Prints the milliseconds from launch until the first successful request.
+first_request_millis() {
+    local start pid
+    start=$(date +%s%N)
+    "$@" >/dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "http://localhost:$PORT/actuator/health"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited before answering: $*" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    echo $(( ($(date +%s%N) - start) / 1000000 ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+report() {
+    local label=$1 times=()
+    shift
+    for ((run = 1; run <= RUNS; run++)); do
+        times+=("$(first_request_millis "$@")")
+    done
+    IFS=$'\n' read -r -d '' -a times < <(printf '%s\n' "${times[@]}" | sort -n && printf '\0')
+    printf '[startup] %-10s runs=%d min=%dms median=%dms max=%dms\n' \
+        "$label" "$RUNS" "${times[0]}" "${times[$((RUNS / 2))]}" "${times[$((RUNS - 1))]}"
+}
+
+report baseline java -jar "$JAR" "${APP_ARGS[@]}"
+# The archive records the class path it was trained with, so the extracted jar runs from its directory.
+cd "$DIR"
+report fast-start java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+    -jar application.jar "${APP_ARGS[@]}"
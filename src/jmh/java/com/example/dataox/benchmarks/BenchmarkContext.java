@@ -0,0 +1,36 @@
+package com.example.dataox.benchmarks;
+
+import com.example.dataox.DataoxTestApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Starts the application without a web server against a fresh in-memory H2 database whose schema is
+ * generated from the entities. The in-memory indexes and the client cache are off so benchmarks measure
+ * the database paths they call.
+ */
+final class BenchmarkContext {
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID() + ";LOCK_TIMEOUT=10000",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.jpa.show-sql=false",
+                "--spring.flyway.enabled=false",
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper=OFF",
+                "--clients.search-index.enabled=false",
+                "--clients.profit-index.enabled=false",
+                "--clients.cache.enabled=false"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(DataoxTestApplication.class).run(args.toArray(String[]::new));
+    }
+}
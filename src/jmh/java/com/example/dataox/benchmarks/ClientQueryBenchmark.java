@@ -0,0 +1,149 @@
+package com.example.dataox.benchmarks;
+
+import com.example.dataox.dto.OrderView;
+import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderQueryRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the client read queries with {@code rows} clients and as many orders between random pairs.
+ * Profits are spread uniformly over [-1000, 1000).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ClientQueryBenchmark {
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"
+    };
+    private static final String[] CITIES = {
+            "Kyiv", "Lviv", "Odesa", "Kharkiv", "Dnipro", "Zaporizhzhia", "Vinnytsia", "Poltava", "Chernihiv", "Uzhhorod"
+    };
+    private static final int SEED_BATCH = 10_000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ClientRepository clientRepository;
+    private OrderQueryRepository orderQueryRepository;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start();
+        clientRepository = context.getBean(ClientRepository.class);
+        orderQueryRepository = context.getBean(OrderQueryRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /** Selective search: the email fragment of one random client. */
+    @Benchmark
+    public List<Client> searchClientsByEmail() {
+        long id = ThreadLocalRandom.current().nextLong(1, rows + 1);
+        return clientRepository.searchClients(null, "user" + id + "@", null);
+    }
+
+    /** Broad search: a last name shared by 1/20 of the clients, narrowed by city. */
+    @Benchmark
+    public List<Client> searchClientsByNameAndAddress() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return clientRepository.searchClients(LAST_NAMES[random.nextInt(LAST_NAMES.length)], null,
+                CITIES[random.nextInt(CITIES.length)]);
+    }
+
+    /** A profit window 10 wide, matching about 0.5% of the clients. */
+    @Benchmark
+    public List<Client> findByProfitRange() {
+        int min = ThreadLocalRandom.current().nextInt(-1000, 990);
+        return clientRepository.findByProfitRange(Money.of(min), Money.of(min + 10));
+    }
+
+    @Benchmark
+    public List<OrderView> findOrdersByClientId() {
+        return orderQueryRepository.findByClientId(ThreadLocalRandom.current().nextLong(1, rows + 1));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(new Object[]{
+                    id,
+                    "Client" + id + " " + LAST_NAMES[(int) (id % LAST_NAMES.length)],
+                    "user" + id + "@example.com",
+                    CITIES[random.nextInt(CITIES.length)] + ", street " + random.nextInt(500),
+                    BigDecimal.valueOf(random.nextInt(-100_000, 100_000), 2),
+                    true,
+                    now,
+                    now
+            });
+            if (batch.size() == SEED_BATCH || id == rows) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO clients (id, name, email, address, profit, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+
+        for (long id = 1; id <= rows; id++) {
+            long supplierId = 1 + random.nextInt(rows);
+            long consumerId = 1 + random.nextInt(rows - 1);
+            if (consumerId >= supplierId) {
+                consumerId++;
+            }
+            batch.add(new Object[]{
+                    id,
+                    "Order " + id,
+                    supplierId,
+                    consumerId,
+                    BigDecimal.valueOf(100 + random.nextInt(10_000), 2),
+                    now,
+                    now,
+                    now
+            });
+            if (batch.size() == SEED_BATCH || id == rows) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO orders (id, name, supplier_id, consumer_id, price, start_time, end_time, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                        batch);
+                batch.clear();
+            }
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.dataox.benchmarks;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.services.OrderTransactionalService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput of the order write transaction with the simulated processing delay and the in-process
+ * lock stripes bypassed: {@code hot} sends every order between one client pair in random direction,
+ * {@code uniform} spreads orders over random pairs of {@value #CLIENTS} clients. Created and failed
+ * (serialization or lock timeout) orders are reported as separate secondary results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class OrderWriteBenchmark {
+    private static final int CLIENTS = 1000;
+    private static final Money STARTING_PROFIT = Money.of(1_000_000_000L);
+
+    @Param({"hot", "uniform"})
+    public String contention;
+
+    @Param({"pessimistic", "conditional-update"})
+    public String strategy;
+
+    private ConfigurableApplicationContext context;
+    private OrderTransactionalService orderTransactionalService;
+    private long[] clientIds;
+    private final AtomicLong orderSequence = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcomes {
+        public long created;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            created = 0;
+            failed = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkContext.start();
+        orderTransactionalService = context.getBean(OrderTransactionalService.class);
+
+        List<Client> clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(Client.builder()
+                    .name("Client " + i)
+                    .email("client" + i + "@bench.local")
+                    .address("Address " + i)
+                    .active(true)
+                    .profit(STARTING_PROFIT)
+                    .build());
+        }
+        clientIds = context.getBean(ClientRepository.class).saveAll(clients).stream()
+                .mapToLong(Client::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order createOrder(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int supplier;
+        int consumer;
+        if ("hot".equals(contention)) {
+            supplier = random.nextInt(2);
+            consumer = 1 - supplier;
+        } else {
+            supplier = random.nextInt(clientIds.length);
+            consumer = random.nextInt(clientIds.length - 1);
+            if (consumer >= supplier) {
+                consumer++;
+            }
+        }
+
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName("Order " + orderSequence.incrementAndGet());
+        request.setSupplierId(clientIds[supplier]);
+        request.setConsumerId(clientIds[consumer]);
+        request.setPrice(BigDecimal.valueOf(random.nextInt(1, 100)));
+
+        try {
+            Order order = "conditional-update".equals(strategy)
+                    ? orderTransactionalService.saveOrderConditional(LocalDateTime.now(), request, request.getSupplierId(), request.getConsumerId())
+                    : orderTransactionalService.saveOrderTransactional(LocalDateTime.now(), request, request.getSupplierId(), request.getConsumerId());
+            outcomes.created++;
+            return order;
+        } catch (RuntimeException ex) {
+            outcomes.failed++;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.dataox.benchmarks;
+
+import com.example.dataox.dto.CompactOrder;
+import com.example.dataox.dto.OrderListView;
+import com.example.dataox.dto.OrderView;
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of one page of {@code orders} orders between {@value #CLIENTS} clients, per response
+ * shape and wire format:
+ * <ul>
+ *     <li>{@code entities} - {@link Order} entities with both clients inline, as a created order is returned;</li>
+ *     <li>{@code views} - {@link OrderView} rows with client ids and names, the default list shape;</li>
+ *     <li>{@code compact} - {@link CompactOrder} items with client ids only;</li>
+ *     <li>{@code compact-clients} - compact items plus the side-table with each client once.</li>
+ * </ul>
+ * The payload size of each combination is printed when the trial starts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    private static final int CLIENTS = 50;
+
+    @Param({"100", "1000"})
+    public int orders;
+
+    @Param({"entities", "views", "compact", "compact-clients"})
+    public String shape;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private Object payload;
+
+    @Setup(Level.Trial)
+    public void start() throws JsonProcessingException {
+        mapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Client> clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.add(Client.builder()
+                    .id((long) i + 1)
+                    .name("Client " + i)
+                    .email("client" + i + "@bench.local")
+                    .address(i + " Long Street, Kyiv, Ukraine")
+                    .active(true)
+                    .profit(Money.ofCents(random.nextInt(-100_000, 100_000)))
+                    .profitShards(0)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        List<Order> entities = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            Client supplier = clients.get(random.nextInt(CLIENTS));
+            Client consumer = clients.get(random.nextInt(CLIENTS));
+            entities.add(Order.builder()
+                    .id((long) i + 1)
+                    .name("Order " + i)
+                    .supplier(supplier)
+                    .consumer(consumer)
+                    .price(Money.ofCents(100 + random.nextInt(100_000)))
+                    .startTime(now)
+                    .endTime(now)
+                    .createdAt(now)
+                    .build());
+        }
+
+        payload = switch (shape) {
+            case "entities" -> entities;
+            case "views" -> entities.stream().map(ResponseSerializationBenchmark::view).toList();
+            case "compact" -> new OrderListView(entities.stream().map(CompactOrder::of).toList(), null, null);
+            case "compact-clients" -> {
+                Map<Long, Client> table = new TreeMap<>();
+                for (Order order : entities) {
+                    table.put(order.getSupplier().getId(), order.getSupplier());
+                    table.put(order.getConsumer().getId(), order.getConsumer());
+                }
+                yield new OrderListView(entities.stream().map(CompactOrder::of).toList(), table, null);
+            }
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        };
+        System.out.printf("%n[payload] orders=%d shape=%s format=%s bytes=%d%n",
+                orders, shape, format, mapper.writeValueAsBytes(payload).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(payload);
+    }
+
+    private static OrderView view(Order order) {
+        return new OrderView(order.getId(), order.getName(), order.getSupplier().getId(), order.getSupplier().getName(),
+                order.getConsumer().getId(), order.getConsumer().getName(), order.getPrice().toBigDecimal(),
+                order.getStartTime(), order.getEndTime(), order.getCreatedAt());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.dataox.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "clients")
+public class ClientProperties {
+    private final SearchIndex searchIndex = new SearchIndex();
+    private final ProfitIndex profitIndex = new ProfitIndex();
+    private final Cache cache = new Cache();
+    private final Hot hot = new Hot();
+    private final BulkImport bulkImport = new BulkImport();
+
+    @Data
+    public static class SearchIndex {
+        /** Serve {@code /api/clients/search} from the in-memory trigram index instead of LIKE scans. */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class ProfitIndex {
+        /** Serve {@code /api/clients/by-profit} and {@code /api/clients/top} from the in-memory profit index. */
+        private boolean enabled = true;
+
+        /** How often the index is rebuilt from the table, repairing any drift. */
+        private Duration consistencyCheckInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Cache {
+        /** Serve client lookups by id from an in-process cache. */
+        private boolean enabled = true;
+
+        private long maximumSize = 10_000;
+
+        /** Upper bound on how long an entry may be served; committed changes replace entries immediately. */
+        private Duration expireAfterWrite = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Hot {
+        /** Escrow shards a client gets when promoted without an explicit count. */
+        private int defaultShards = 8;
+
+        private int maxShards = 256;
+    }
+
+    @Data
+    public static class BulkImport {
+        /** Rows inserted and committed per transaction; a failed chunk is retried row by row. */
+        private int chunkSize = 5000;
+
+        /** Most rejected rows listed in the response; all of them are counted. */
+        private int maxReportedRejections = 1000;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.dataox.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+@Configuration
+public class DataSourceConfig {
+
+    /** The pool Spring Boot would create from {@code spring.datasource}; all writes run here. */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * The application's DataSource. The target connection is fetched on the first statement, once the
+     * transaction has marked it read-only or not: read-only ones go through {@link ReadOnlyRouting}, all
+     * others to the primary. Decided per connection, so it relies on open-session-in-view being off.
+     */
+    @Bean
+    @Primary
+    public RoutingDataSource dataSource(HikariDataSource primaryDataSource, ReplicaProperties replicaProperties,
+                                        ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource replica = null;
+        if (replicaProperties.isEnabled()) {
+            replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replicaProperties.getUrl())
+                    .username(replicaProperties.getUsername())
+                    .password(replicaProperties.getPassword())
+                    .driverClassName(replicaProperties.getDriverClassName())
+                    .build();
+            replica.setPoolName("replica");
+            replica.setMaximumPoolSize(replicaProperties.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            HikariDataSource pool = replica;
+            meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+        }
+        return new RoutingDataSource(primaryDataSource, replica);
+    }
+
+    /** Lazy connection proxy that owns the replica pool, if there is one, and closes it with the context. */
+    public static class RoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+        private final HikariDataSource replica;
+
+        RoutingDataSource(DataSource primary, HikariDataSource replica) {
+            super(primary);
+            this.replica = replica;
+            if (replica != null) {
+                ReadOnlyRouting readOnly = new ReadOnlyRouting();
+                readOnly.setTargetDataSources(Map.of(Boolean.TRUE, replica, Boolean.FALSE, primary));
+                readOnly.afterPropertiesSet();
+                setReadOnlyDataSource(readOnly);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (replica != null) {
+                replica.close();
+            }
+        }
+    }
+
+    /** Read-only connections: from the replica where {@link DataSourceRouting} allows it, else from the primary. */
+    static class ReadOnlyRouting extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return DataSourceRouting.isReplicaAllowed();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.dataox.config;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread permission to read from the replica. Read-only transactions use the replica only on threads
+ * that opted in, which {@link ReadYourWrites} does for read requests; background work, write requests and
+ * anything that must not see a lagging copy stay on the primary.
+ */
+public final class DataSourceRouting {
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private DataSourceRouting() {
+    }
+
+    public static boolean isReplicaAllowed() {
+        return REPLICA_ALLOWED.get();
+    }
+
+    /** Runs {@code action} with its read-only transactions on the primary. */
+    public static <T> T onPrimary(Supplier<T> action) {
+        return with(false, action);
+    }
+
+    /** {@code action} running with the calling thread's permission, for work handed to another thread. */
+    public static <T> Consumer<T> propagate(Consumer<T> action) {
+        boolean allowed = isReplicaAllowed();
+        return value -> with(allowed, () -> {
+            action.accept(value);
+            return null;
+        });
+    }
+
+    static void allowReplica(boolean allowed) {
+        REPLICA_ALLOWED.set(allowed);
+    }
+
+    static void clear() {
+        REPLICA_ALLOWED.remove();
+    }
+
+    static <T> T with(boolean replicaAllowed, Supplier<T> action) {
+        boolean previous = REPLICA_ALLOWED.get();
+        REPLICA_ALLOWED.set(replicaAllowed);
+        try {
+            return action.get();
+        } finally {
+            REPLICA_ALLOWED.set(previous);
+        }
+    }
+}
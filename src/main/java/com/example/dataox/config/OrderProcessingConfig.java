@@ -0,0 +1,28 @@
+package com.example.dataox.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class OrderProcessingConfig {
+
+    /**
+     * Scheduler for accepted orders. The processing delay is a scheduled wake-up rather than a
+     * sleeping thread, so a handful of workers is enough to keep any number of orders pending.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService orderProcessingScheduler(OrderProperties orderProperties) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "order-processing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newScheduledThreadPool(orderProperties.getAsync().getWorkerThreads(), threadFactory);
+    }
+}
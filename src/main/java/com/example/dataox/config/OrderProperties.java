@@ -0,0 +1,144 @@
+package com.example.dataox.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "orders")
+public class OrderProperties {
+    /**
+     * How {@code POST /api/orders} is answered: ASYNC returns 202 with a ticket right away,
+     * SYNC keeps the original contract and replies with the created order once it is stored.
+     */
+    private ProcessingMode processingMode = ProcessingMode.ASYNC;
+
+    /**
+     * How an order changes client profits: PESSIMISTIC locks both client rows in id order under READ COMMITTED,
+     * CONDITIONAL_UPDATE applies each change as one guarded UPDATE under READ COMMITTED.
+     */
+    private WriteStrategy writeStrategy = WriteStrategy.PESSIMISTIC;
+
+    /**
+     * Number of in-JVM lock stripes used to serialize orders per client (rounded up to a power of two).
+     */
+    private int lockStripes = 64;
+
+    private final Delay delay = new Delay();
+
+    private final Async async = new Async();
+
+    private final Batch batch = new Batch();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final Precheck precheck = new Precheck();
+
+    private final Admission admission = new Admission();
+    private final Feed feed = new Feed();
+
+    public enum ProcessingMode {
+        SYNC,
+        ASYNC
+    }
+
+    public enum WriteStrategy {
+        PESSIMISTIC,
+        CONDITIONAL_UPDATE
+    }
+
+    /**
+     * Simulated processing delay of every order (or batch): uniformly distributed between {@code min} and
+     * {@code max}, then multiplied by {@code scale}. Load tests shrink the scale to keep the shape of the
+     * distribution while finishing in seconds.
+     */
+    @Data
+    public static class Delay {
+        private Duration min = Duration.ofSeconds(1);
+
+        private Duration max = Duration.ofSeconds(10);
+
+        private double scale = 1.0;
+    }
+
+    @Data
+    public static class Async {
+        /** Threads that run the order transaction once the processing delay has elapsed. */
+        private int workerThreads = 4;
+
+        /** How long a finished ticket stays queryable before it is purged. */
+        private Duration ticketRetention = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Batch {
+        /** Largest number of orders accepted by a single {@code POST /api/orders/batch}. */
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class Idempotency {
+        /** Most {@code Idempotency-Key} values remembered at once; the least recently used are dropped first. */
+        private long maximumKeys = 100_000;
+
+        /** How long the outcome of a keyed request is replayed to retries. */
+        private Duration retention = Duration.ofHours(24);
+    }
+
+    /**
+     * Snapshot checks run before the processing delay, so orders that are certain to be rejected fail in
+     * milliseconds. The transactional checks stay authoritative.
+     */
+    @Data
+    public static class Precheck {
+        private boolean enabled = true;
+
+        /** Number of business keys the Bloom filter is sized for; beyond it the false-positive rate grows. */
+        private long expectedKeys = 1_000_000;
+
+        /** Share of new keys the filter reports as possibly taken, each confirmed with one indexed lookup. */
+        private double falsePositiveRate = 0.01;
+    }
+
+    /**
+     * Bounds on orders in flight, from acceptance until their transaction ends. Orders above a limit are
+     * answered with 429 right away. The defaults leave part of the request threads and of the connection
+     * pool to reads.
+     */
+    @Data
+    public static class Admission {
+        private boolean enabled = true;
+
+        /** Orders in flight across all clients; keep below {@code server.tomcat.threads.max} in sync mode. */
+        private int maxInFlight = 150;
+
+        /** Orders in flight that involve the same client. */
+        private int maxInFlightPerClient = 50;
+
+        /** Orders in flight between the same two clients, in either direction. */
+        private int maxInFlightPerPair = 25;
+
+        /** Order transactions running at once; keep below the connection pool size. */
+        private int maxConcurrentTransactions = 8;
+    }
+
+    /**
+     * Change feed served by {@code GET /api/feed}. Committed events go into a ring buffer that subscribers
+     * read at their own pace; one that falls a whole buffer behind is disconnected and resumes from
+     * {@code Last-Event-ID}.
+     */
+    @Data
+    public static class Feed {
+        /** Events kept for subscribers to catch up on, and for reconnecting ones to resume from. */
+        private int bufferSize = 10_000;
+        /** Threads that write events to subscribers; a subscriber with a full socket holds one of them. */
+        private int deliveryThreads = 4;
+        /** How often an idle subscription gets a comment line, so proxies keep it and dead ones are noticed. */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+        /** Lifetime of one subscription, after which the client reconnects with {@code Last-Event-ID}. */
+        private Duration timeout = Duration.ofMinutes(30);
+        /** Longest one write to a subscriber may block before the subscriber is dropped. */
+        private Duration sendTimeout = Duration.ofSeconds(10);
+    }
+}
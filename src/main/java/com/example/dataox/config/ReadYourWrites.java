@@ -0,0 +1,154 @@
+package com.example.dataox.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Lets read requests use the replica, except for callers that wrote recently. Every other request pins
+ * its caller to the primary for {@code datasource.replica.read-your-writes-window} with a cookie holding
+ * the pin's end, so reads following a write see it even if the replica has not caught up yet. The window
+ * starts when the response is written, after the write committed, not when the request arrived: an order
+ * can take longer than the window to process.
+ * <p>
+ * Does nothing while the replica is disabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWrites extends OncePerRequestFilter {
+    public static final String COOKIE_NAME = "primary-until";
+
+    private final ReplicaProperties replicaProperties;
+
+    /**
+     * Pins the caller to the primary from now on, for writes not made by its own request, such as an
+     * asynchronous order it just saw committed.
+     */
+    public void pin(HttpServletResponse response) {
+        if (!replicaProperties.isEnabled()) {
+            return;
+        }
+        long window = replicaProperties.getReadYourWritesWindow().toMillis();
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, Long.toString(System.currentTimeMillis() + window))
+                .path("/api")
+                .maxAge(replicaProperties.getReadYourWritesWindow())
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !replicaProperties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = "GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod());
+        DataSourceRouting.allowReplica(read && !isPinned(request));
+        try {
+            if (read) {
+                chain.doFilter(request, response);
+                return;
+            }
+            // A failed write is pinned as well; it costs no more than a few reads on the primary.
+            PinningResponse pinning = new PinningResponse(response);
+            chain.doFilter(request, pinning);
+            if (!request.isAsyncStarted()) {
+                // Responses without a body; an async response is pinned when its dispatch writes it.
+                pinning.pinOnce();
+            }
+        } finally {
+            DataSourceRouting.clear();
+        }
+    }
+
+    private boolean isPinned(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long latest = now + replicaProperties.getReadYourWritesWindow().toMillis();
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    long until = Long.parseLong(cookie.getValue());
+                    // A pin beyond the window was not issued here and would keep the caller off the replica.
+                    if (until > now && until <= latest) {
+                        return true;
+                    }
+                } catch (NumberFormatException e) {
+                    // Not ours; read from the replica.
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Sets the pin right before the response starts being written, which is the last moment a header can go. */
+    private final class PinningResponse extends HttpServletResponseWrapper {
+        private boolean pinned;
+
+        PinningResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void pinOnce() {
+            if (!pinned && !isCommitted()) {
+                pinned = true;
+                pin((HttpServletResponse) getResponse());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            pinOnce();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            pinOnce();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            pinOnce();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            pinOnce();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            pinOnce();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            pinOnce();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dataox.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read replica serving the read-only transactions of read requests. Everything else, and every request
+ * while it is disabled, uses the primary {@code spring.datasource}.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private int maximumPoolSize = 10;
+
+    /** How long a caller's reads stay on the primary after it wrote; should exceed the replication lag. */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
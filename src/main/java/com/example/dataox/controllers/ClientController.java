@@ -1,7 +1,15 @@
 package com.example.dataox.controllers;
 
+import com.example.dataox.dto.ClientCacheStats;
+import com.example.dataox.dto.ClientDailyStats;
+import com.example.dataox.dto.ClientImportResult;
+import com.example.dataox.dto.ClientOrderStatsSummary;
+import com.example.dataox.dto.ClientProfitPage;
 import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.dto.KeysetPage;
 import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import com.example.dataox.services.ClientImportService;
 import com.example.dataox.services.ClientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,11 +17,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -21,24 +36,46 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ClientController {
     private final ClientService clientService;
+    private final NdjsonResponses ndjsonResponses;
+    private final ClientImportService clientImportService;
 
-    @Operation(summary = "Get all clients")
+    @Operation(summary = "Get all clients. With 'after' and/or 'limit' returns one keyset page and the cursor of the next one")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "List of clients")
+            @ApiResponse(responseCode = "200", description = "List of clients, or a page of clients when paginated"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping
-    public List<Client> getAllClients() {
-        return clientService.getAllClients();
+    public ResponseEntity<?> getAllClients(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(clientService.getAllClients());
+        }
+        KeysetPage<Client> page = clientService.getClientsPage(after, limit);
+        return ResponseEntity.ok(page);
     }
 
-    @Operation(summary = "Get client by id")
+    @Operation(summary = "Stream all clients as newline-delimited JSON with constant memory")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllClients() {
+        return ndjsonResponses.stream(clientService::streamClients);
+    }
+
+    @Operation(summary = "Get hit, miss and eviction counters of the client lookup cache")
+    @GetMapping("/cache/stats")
+    public ClientCacheStats getCacheStats() {
+        return clientService.getCacheStats();
+    }
+
+    @Operation(summary = "Get client by id. Carries an ETag; a matching If-None-Match is answered with 304")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Client found"),
+            @ApiResponse(responseCode = "304", description = "Client unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
-    public Client getClientById(@PathVariable Long id) {
-        return clientService.getClientById(id);
+    public ResponseEntity<Client> getClientById(@PathVariable Long id, WebRequest request) {
+        return ConditionalResponses.ok(request, clientService.getClientETag(id), () -> clientService.getClientById(id));
     }
 
     @Operation(summary = "Create new client")
@@ -52,11 +89,31 @@ public class ClientController {
         return clientService.createClient(clientRequest);
     }
 
+    @Operation(summary = "Import clients from a CSV body (header with name, email and optional address, active columns), " +
+            "streamed and inserted in chunks. Rows with missing fields, invalid or duplicate emails are rejected with reasons")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import finished, see accepted and rejected rows"),
+            @ApiResponse(responseCode = "400", description = "Missing or invalid header", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ClientImportResult importClientsCsv(InputStream body) throws IOException {
+        return clientImportService.importCsv(body);
+    }
+
+    @Operation(summary = "Import clients from newline-delimited JSON (name, email, address, active per line), streamed and inserted in chunks")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import finished, see accepted and rejected rows")
+    })
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ClientImportResult importClientsNdjson(InputStream body) throws IOException {
+        return clientImportService.importNdjson(body);
+    }
+
     @Operation(summary = "Update existing client")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Client updated"),
             @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
-            @ApiResponse(responseCode = "409", description = "Email conflict", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+            @ApiResponse(responseCode = "409", description = "Email conflict, or the client changed concurrently", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PutMapping("/{id}")
     public Client updateClient(@PathVariable Long id, @RequestBody ClientRequest clientRequest) {
@@ -88,24 +145,79 @@ public class ClientController {
         return ResponseEntity.ok().build();
     }
 
-    @Operation(summary = "Get client's profit")
+    @Operation(summary = "Mark a client as hot, splitting its profit headroom into escrow shards so its orders commit in parallel")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Client promoted"),
+            @ApiResponse(responseCode = "400", description = "Invalid shard count or client already hot", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/{id}/hot")
+    public Client promoteToHot(@PathVariable Long id, @RequestParam(required = false) Integer shards) {
+        return clientService.promoteToHot(id, shards);
+    }
+
+    @Operation(summary = "Get client's profit. Carries the client's ETag; a matching If-None-Match is answered with 304")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Profit value"),
+            @ApiResponse(responseCode = "304", description = "Profit unchanged since the given ETag"),
             @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{clientId}/profit")
-    public BigDecimal getClientProfit(@PathVariable Long clientId) {
-        return clientService.calculateClientProfit(clientId);
+    public ResponseEntity<Money> getClientProfit(@PathVariable Long clientId, WebRequest request) {
+        return ConditionalResponses.ok(request, clientService.getClientETag(clientId), () -> clientService.calculateClientProfit(clientId));
+    }
+
+    @Operation(summary = "Get a client's all-time order turnover: orders bought and sold, totals and average price, read from the daily rollup")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Turnover summary"),
+            @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{clientId}/stats")
+    public ClientOrderStatsSummary getClientStats(@PathVariable Long clientId) {
+        return clientService.getOrderStats(clientId);
+    }
+
+    @Operation(summary = "Get a client's turnover per day between 'from' and 'to' (inclusive, default the last 30 days, at most 366 days)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Daily buckets in date order; days without orders are omitted"),
+            @ApiResponse(responseCode = "400", description = "Invalid range", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{clientId}/stats/daily")
+    public List<ClientDailyStats> getClientDailyStats(
+            @PathVariable Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return clientService.getDailyOrderStats(clientId, from, to);
     }
 
-    @Operation(summary = "Find clients by profit range")
+    @Operation(summary = "Find clients by profit range. With 'after' and/or 'limit' returns one page ordered by profit and id, and the cursor of the next one")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Filtered clients")
+            @ApiResponse(responseCode = "200", description = "Filtered clients, or a page of them when paginated"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit or cursor", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/by-profit")
-    public List<Client> getClientsByProfitRange(
+    public ResponseEntity<?> getClientsByProfitRange(
             @RequestParam(required = false) BigDecimal min,
-            @RequestParam(required = false) BigDecimal max) {
-        return clientService.findClientsByProfitRange(min, max);
+            @RequestParam(required = false) BigDecimal max,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(clientService.findClientsByProfitRange(min, max));
+        }
+        ClientProfitPage page = clientService.findClientsByProfitRangePage(min, max, after, limit);
+        return ResponseEntity.ok(page);
+    }
+
+    @Operation(summary = "Get the n clients with the highest (order=desc, default) or lowest (order=asc) profit")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Clients ordered by profit"),
+            @ApiResponse(responseCode = "400", description = "Invalid n or order", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/top")
+    public List<Client> getTopClients(
+            @RequestParam(required = false) Integer n,
+            @RequestParam(required = false) String order) {
+        return clientService.getTopClients(n, order);
     }
 }
@@ -0,0 +1,40 @@
+package com.example.dataox.controllers;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Answers conditional GETs from a precomputed validator, so a matching {@code If-None-Match} gets
+ * a 304 before the body is loaded or serialized. The validators do not depend on the negotiated format,
+ * so responses always carry {@code Vary: Accept} for caches to keep JSON, CBOR and Smile apart.
+ */
+final class ConditionalResponses {
+    private ConditionalResponses() {
+    }
+
+    /**
+     * @param etag the resource's current validator, read before the body so it is never newer than it;
+     *             {@code null} skips validation
+     * @return the body with its {@code ETag}, or {@code null} once a 304 has been written
+     */
+    static <T> ResponseEntity<T> ok(WebRequest request, String etag, Supplier<T> body) {
+        // Set on the response itself, so the 304 written by checkNotModified carries it as well.
+        if (request instanceof NativeWebRequest nativeRequest
+                && nativeRequest.getNativeResponse() instanceof HttpServletResponse response
+                && !response.getHeaders(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(body.get());
+    }
+}
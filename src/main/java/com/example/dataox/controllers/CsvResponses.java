@@ -0,0 +1,105 @@
+package com.example.dataox.controllers;
+
+import com.example.dataox.config.DataSourceRouting;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds CSV download responses that write each row as soon as the source produces it, gzip-compressed
+ * when the client accepts it. Only a fixed-size write buffer is held, whatever the number of rows.
+ */
+@Component
+public class CsvResponses {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(String fileName, String acceptEncoding, List<String> header,
+                                                            Function<T, Object[]> columns, Consumer<Consumer<T>> source) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        Consumer<Consumer<T>> rows = DataSourceRouting.propagate(source);
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+            OutputStream target = compressed != null ? compressed : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writeLine(writer, header.toArray());
+            rows.accept(item -> {
+                try {
+                    writeLine(writer, columns.apply(item));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            if (compressed != null) {
+                compressed.finish();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().toLowerCase(Locale.ROOT).equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static void writeLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(writer, values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /** Writes one field as RFC 4180 CSV: quoted when it contains a comma, quote or line break. */
+    private static void writeValue(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
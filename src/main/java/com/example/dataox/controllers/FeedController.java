@@ -0,0 +1,37 @@
+package com.example.dataox.controllers;
+
+import com.example.dataox.feed.OrderFeed;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/feed")
+@RequiredArgsConstructor
+public class FeedController {
+    private final OrderFeed orderFeed;
+
+    @Operation(summary = "Subscribe to committed order-created and profit-changed events as server-sent events, " +
+            "optionally only those of one client. Send Last-Event-ID to resume after the given event")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Event stream; a reset event means events were missed, an overrun event ends a subscriber that fell too far behind"),
+            @ApiResponse(responseCode = "400", description = "Invalid Last-Event-ID", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestParam(required = false) Long clientId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return orderFeed.subscribe(clientId, lastEventId);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.dataox.controllers;
+
+import com.example.dataox.config.DataSourceRouting;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Builds newline-delimited JSON responses that write each row as soon as the source produces it.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonResponses {
+    private final ObjectMapper objectMapper;
+
+    public <T> ResponseEntity<StreamingResponseBody> stream(Consumer<Consumer<T>> source) {
+        Consumer<Consumer<T>> rows = DataSourceRouting.propagate(source);
+        StreamingResponseBody body = out -> rows.accept(item -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(item));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
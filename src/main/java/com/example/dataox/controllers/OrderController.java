@@ -1,63 +1,251 @@
 package com.example.dataox.controllers;
 
+import com.example.dataox.config.OrderProperties;
+import com.example.dataox.config.ReadYourWrites;
+import com.example.dataox.dto.ClientProfitReportRow;
+import com.example.dataox.dto.CompactOrder;
+import com.example.dataox.dto.KeysetPage;
+import com.example.dataox.dto.OrderBatchResult;
 import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.dto.OrderExportFilter;
+import com.example.dataox.dto.OrderResponseView;
+import com.example.dataox.dto.OrderTicket;
+import com.example.dataox.dto.OrderTicketStatus;
+import com.example.dataox.dto.OrderView;
 import com.example.dataox.entities.Order;
+import com.example.dataox.services.OrderIdempotency;
 import com.example.dataox.services.OrderService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 @Tag(name = "Orders", description = "Operations for creating and listing orders")
 public class OrderController {
+    private static final List<String> ORDER_EXPORT_HEADER = List.of("id", "name", "supplier_id", "supplier_name",
+            "consumer_id", "consumer_name", "price", "start_time", "end_time", "created_at");
+    private static final List<String> PROFIT_REPORT_HEADER = List.of("client_id", "name", "email", "active", "orders",
+            "income", "expense", "net", "profit");
+
     private final OrderService orderService;
+    private final OrderProperties orderProperties;
+    private final NdjsonResponses ndjsonResponses;
+    private final OrderIdempotency orderIdempotency;
+    private final CsvResponses csvResponses;
+    private final ReadYourWrites readYourWrites;
 
-    @Operation(summary = "Get all orders")
+    @Operation(summary = "Get all orders. With 'after' and/or 'limit' returns one keyset page and the cursor of the next one. " +
+            "With view=compact clients are referenced by id only; view=compact&include=clients adds each referenced client once in a side-table")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "List of orders, or a page of orders when paginated or compact"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit, view or include", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
     @GetMapping
-    public List<Order> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<?> getAllOrders(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String include) {
+        OrderResponseView shape = OrderResponseView.parse(view, include);
+        if (after == null && limit == null) {
+            List<OrderView> orders = orderService.getAllOrders();
+            return ResponseEntity.ok(shape.isCompact() ? orderService.toListView(orders, null, shape) : orders);
+        }
+        KeysetPage<OrderView> page = orderService.getOrdersPage(after, limit);
+        return ResponseEntity.ok(shape.isCompact() ? orderService.toListView(page.getItems(), page.getNextCursor(), shape) : page);
+    }
+
+    @Operation(summary = "Stream all orders as newline-delimited JSON with constant memory")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllOrders() {
+        return ndjsonResponses.stream(orderService::streamOrders);
+    }
+
+    @Operation(summary = "Export orders as CSV, streamed from a database cursor and gzip-compressed when the client accepts it. " +
+            "Filters: client (as supplier or consumer), createdAt range [from, to) and inclusive price range")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "CSV of matching orders in id order"),
+            @ApiResponse(responseCode = "400", description = "Invalid range", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/export", produces = CsvResponses.TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        OrderExportFilter filter = new OrderExportFilter(clientId, from, to, minPrice, maxPrice);
+        orderService.validateExportFilter(filter);
+        return csvResponses.<OrderView>stream("orders.csv", acceptEncoding, ORDER_EXPORT_HEADER,
+                order -> new Object[]{order.getId(), order.getName(), order.getSupplierId(), order.getSupplierName(),
+                        order.getConsumerId(), order.getConsumerName(), order.getPrice(), order.getStartTime(),
+                        order.getEndTime(), order.getCreatedAt()},
+                consumer -> orderService.exportOrders(filter, consumer));
+    }
+
+    @Operation(summary = "Export a profit statement per client as CSV: number of matching orders, income as supplier, " +
+            "expense as consumer and their net, next to the current profit. Takes the same filters as the order export")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "CSV with one line per client in id order"),
+            @ApiResponse(responseCode = "400", description = "Invalid range", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/export/client-profits", produces = CsvResponses.TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportClientProfits(
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        OrderExportFilter filter = new OrderExportFilter(clientId, from, to, minPrice, maxPrice);
+        orderService.validateExportFilter(filter);
+        return csvResponses.<ClientProfitReportRow>stream("client-profits.csv", acceptEncoding, PROFIT_REPORT_HEADER,
+                row -> new Object[]{row.getClientId(), row.getName(), row.getEmail(), row.isActive(), row.getOrders(),
+                        row.getIncome(), row.getExpense(), row.getNet(), row.getProfit()},
+                consumer -> orderService.exportProfitReport(filter, consumer));
     }
 
-    @Operation(summary = "Get order by id")
+    @Operation(summary = "Get order by id. With view=compact clients are referenced by id only")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Order found"),
+            @ApiResponse(responseCode = "400", description = "Invalid view", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Order not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{id}")
-    public Order getOrderById(@PathVariable Long id) {
-        return orderService.getOrderById(id);
+    public ResponseEntity<?> getOrderById(@PathVariable Long id, @RequestParam(required = false) String view) {
+        OrderResponseView shape = OrderResponseView.parse(view, null);
+        OrderView order = orderService.getOrderById(id);
+        return ResponseEntity.ok(shape.isCompact() ? CompactOrder.of(order) : order);
     }
 
-    @Operation(summary = "Create new order (processing delay 1-10s). Business rules: unique business key, positive price, active clients, profit thresholds)")
+    @Operation(summary = "Create new order (processing delay 1-10s). Business rules: unique business key, positive price, active clients, profit thresholds). " +
+            "In async mode the order is accepted with a ticket and processed in the background. " +
+            "Requests repeating an Idempotency-Key share the outcome of the first one. " +
+            "With view=compact the created order references its clients by id only")
     @ApiResponses({
-            @ApiResponse(responseCode = "201", description = "Order created"),
+            @ApiResponse(responseCode = "200", description = "Order created (sync mode)"),
+            @ApiResponse(responseCode = "202", description = "Order accepted for processing (async mode)"),
             @ApiResponse(responseCode = "400", description = "Validation error", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "409", description = "Business key conflict", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
-            @ApiResponse(responseCode = "422", description = "Business rule violation (profit threshold or inactive client)", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+            @ApiResponse(responseCode = "422", description = "Business rule violation (profit threshold or inactive client)", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Too many orders in flight, retry after the Retry-After header", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping
-    public Order createOrder(@Valid @RequestBody OrderCreateRequest req) {
-        return orderService.createOrder(req);
+    public CompletableFuture<ResponseEntity<?>> createOrder(
+            @Valid @RequestBody OrderCreateRequest req,
+            @Parameter(description = "Retries with the same key get the outcome of the first request instead of creating the order again")
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestParam(required = false) String view) {
+        OrderResponseView shape = OrderResponseView.parse(view, null);
+        if (idempotencyKey == null) {
+            return CompletableFuture.completedFuture(create(req, shape));
+        }
+        return orderIdempotency.execute(idempotencyKey, req, shape, () -> create(req, shape));
+    }
+
+    private ResponseEntity<?> create(OrderCreateRequest req, OrderResponseView shape) {
+        if (orderProperties.getProcessingMode() == OrderProperties.ProcessingMode.SYNC) {
+            Order order = orderService.createOrder(req);
+            return ResponseEntity.ok(shape.isCompact() ? CompactOrder.of(order) : order);
+        }
+
+        OrderTicket ticket = orderService.submitOrder(req);
+        URI location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/tickets/{ticketId}")
+                .buildAndExpand(ticket.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(ticket);
+    }
+
+    @Operation(summary = "Create a batch of orders with one processing delay and one transaction. " +
+            "Each order is checked against the same business rules as a single order and reported as created or rejected")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Too many orders in flight, retry after the Retry-After header", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/batch")
+    public OrderBatchResult createOrders(@RequestBody List<OrderCreateRequest> requests) {
+        return orderService.createOrders(requests);
     }
 
-    @Operation(summary = "Get all orders where client is supplier or consumer")
+    @Operation(summary = "Get status of an accepted order (pending, created or rejected with reason)")
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "List of orders for the client"),
+            @ApiResponse(responseCode = "200", description = "Ticket found"),
+            @ApiResponse(responseCode = "400", description = "Ticket not found or expired", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/tickets/{ticketId}")
+    public OrderTicket getOrderTicket(@PathVariable UUID ticketId, HttpServletResponse response) {
+        OrderTicket ticket = orderService.getOrderTicket(ticketId);
+        // The order was written after the POST's pin started, so the caller's next reads need their own.
+        if (ticket.getStatus() == OrderTicketStatus.CREATED) {
+            readYourWrites.pin(response);
+        }
+        return ticket;
+    }
+
+    @Operation(summary = "Get all orders where client is supplier or consumer. With 'after' and/or 'limit' returns one keyset page. " +
+            "Takes the same view and include parameters as the order list. Except with include=clients, carries a weak ETag; " +
+            "a matching If-None-Match is answered with 304")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "List of orders for the client, or a page of them when paginated or compact"),
+            @ApiResponse(responseCode = "304", description = "No order of the client since the given ETag"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit, view or include", content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
             @ApiResponse(responseCode = "404", description = "Client not found", content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/clients/{clientId}/orders")
-    public List<Order> getClientOrders(@PathVariable Long clientId) {
-        return orderService.getClientOrders(clientId);
+    public ResponseEntity<?> getClientOrders(
+            @PathVariable Long clientId,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String view,
+            @RequestParam(required = false) String include,
+            WebRequest request) {
+        OrderResponseView shape = OrderResponseView.parse(view, include);
+        // The client side table carries counterparty profits, which change without an order of this client.
+        String etag = shape == OrderResponseView.COMPACT_WITH_CLIENTS ? null : orderService.getClientOrdersETag(clientId);
+        return ConditionalResponses.ok(request, etag, () -> {
+            if (after == null && limit == null) {
+                List<OrderView> orders = orderService.getClientOrders(clientId);
+                return shape.isCompact() ? orderService.toListView(orders, null, shape) : orders;
+            }
+            KeysetPage<OrderView> page = orderService.getClientOrdersPage(clientId, after, limit);
+            return shape.isCompact() ? orderService.toListView(page.getItems(), page.getNextCursor(), shape) : page;
+        });
+    }
+
+    @Operation(summary = "Stream orders where client is supplier or consumer as newline-delimited JSON")
+    @GetMapping(value = "/clients/{clientId}/orders", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamClientOrders(@PathVariable Long clientId) {
+        orderService.requireClientExists(clientId);
+        return ndjsonResponses.<OrderView>stream(consumer -> orderService.streamClientOrders(clientId, consumer));
     }
 }
@@ -0,0 +1,28 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Order totals of one client on one day.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientDailyStats {
+    private LocalDate date;
+    /** Orders where the client is the consumer. */
+    private long ordersBought;
+    /** Orders where the client is the supplier. */
+    private long ordersSold;
+    private BigDecimal bought;
+    private BigDecimal sold;
+
+    public BigDecimal getAveragePrice() {
+        return ClientOrderStatsSummary.average(bought.add(sold), ordersBought + ordersSold);
+    }
+}
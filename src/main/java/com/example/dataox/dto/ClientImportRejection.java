@@ -0,0 +1,15 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientImportRejection {
+    /** 1-based line of the row in the uploaded file, header included. */
+    private long line;
+    private String email;
+    private String reason;
+}
@@ -0,0 +1,18 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientImportResult {
+    private long accepted;
+    private long rejected;
+
+    /** Rejected rows with reasons, capped at {@code clients.bulk-import.max-reported-rejections}. */
+    private List<ClientImportRejection> rejections;
+}
@@ -0,0 +1,40 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * All-time order turnover of one client, read from the daily rollup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientOrderStatsSummary {
+    private Long clientId;
+    /** Orders where the client is the consumer. */
+    private long ordersBought;
+    /** Orders where the client is the supplier. */
+    private long ordersSold;
+    private BigDecimal totalBought;
+    private BigDecimal totalSold;
+    /** Day of the client's first order, or {@code null} when it has none. */
+    private LocalDate firstOrderDate;
+    private LocalDate lastOrderDate;
+
+    public long getOrders() {
+        return ordersBought + ordersSold;
+    }
+
+    public BigDecimal getAveragePrice() {
+        return average(totalBought.add(totalSold), getOrders());
+    }
+
+    static BigDecimal average(BigDecimal total, long orders) {
+        return orders == 0 ? BigDecimal.ZERO : total.divide(BigDecimal.valueOf(orders), 2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.dataox.dto;
+
+import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of clients ordered by profit and then id.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientProfitPage {
+    private List<Client> items;
+
+    /** Value to pass as {@code after} to fetch the next page ({@code <profit>:<id>}), or {@code null} on the last page. */
+    private String nextCursor;
+
+    public static ClientProfitPage of(List<Client> items, int limit) {
+        if (items.size() < limit) {
+            return new ClientProfitPage(items, null);
+        }
+        Client last = items.get(items.size() - 1);
+        Money profit = last.getProfit() == null ? Money.ZERO : last.getProfit();
+        return new ClientProfitPage(items, profit + ":" + last.getId());
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of the client profit statement: the client's orders matching the export filter, summed by
+ * direction, next to its current profit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClientProfitReportRow {
+    private Long clientId;
+    private String name;
+    private String email;
+    private boolean active;
+    private long orders;
+    /** Sum of the prices of matching orders where the client is the supplier. */
+    private BigDecimal income;
+    /** Sum of the prices of matching orders where the client is the consumer. */
+    private BigDecimal expense;
+    /** Current profit over all orders, regardless of the filter. */
+    private BigDecimal profit;
+
+    public BigDecimal getNet() {
+        return income.subtract(expense);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.dataox.dto;
+
+import com.example.dataox.entities.Order;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Order that references its counterparties by id only; their details, when requested, travel once per
+ * response in {@link OrderListView#getClients()}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CompactOrder {
+    private Long id;
+    private String name;
+    private Long supplierId;
+    private Long consumerId;
+    private BigDecimal price;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime createdAt;
+
+    public static CompactOrder of(OrderView order) {
+        return new CompactOrder(order.getId(), order.getName(), order.getSupplierId(), order.getConsumerId(),
+                order.getPrice(), order.getStartTime(), order.getEndTime(), order.getCreatedAt());
+    }
+
+    public static CompactOrder of(Order order) {
+        return new CompactOrder(order.getId(), order.getName(), order.getSupplier().getId(), order.getConsumer().getId(),
+                order.getPrice().toBigDecimal(), order.getStartTime(), order.getEndTime(), order.getCreatedAt());
+    }
+}
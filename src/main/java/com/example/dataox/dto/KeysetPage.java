@@ -0,0 +1,36 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private List<T> items;
+
+    /** Value to pass as {@code after} to fetch the next page, or {@code null} on the last page. */
+    private Long nextCursor;
+
+    public static <T> KeysetPage<T> of(List<T> items, int limit, Function<T, Long> idExtractor) {
+        Long nextCursor = items.size() < limit ? null : idExtractor.apply(items.get(items.size() - 1));
+        return new KeysetPage<>(items, nextCursor);
+    }
+
+    public static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        return limit;
+    }
+}
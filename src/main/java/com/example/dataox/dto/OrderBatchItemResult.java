@@ -0,0 +1,26 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderBatchItemResult {
+    /** Position of the order in the submitted batch. */
+    private int index;
+    private OrderBatchItemStatus status;
+    private Long orderId;
+    private String reason;
+
+    public static OrderBatchItemResult created(int index, Long orderId) {
+        return new OrderBatchItemResult(index, OrderBatchItemStatus.CREATED, orderId, null);
+    }
+
+    public static OrderBatchItemResult rejected(int index, String reason) {
+        return new OrderBatchItemResult(index, OrderBatchItemStatus.REJECTED, null, reason);
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.dataox.dto;
+
+public enum OrderBatchItemStatus {
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,26 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Filters of the order and profit exports. Every field is optional; {@code from} is inclusive and
+ * {@code to} exclusive on the order's {@code createdAt}, both price bounds are inclusive.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderExportFilter {
+    /** Client that took part in the order, as supplier or consumer. */
+    private Long clientId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
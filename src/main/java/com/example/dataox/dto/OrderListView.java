@@ -0,0 +1,27 @@
+package com.example.dataox.dto;
+
+import com.example.dataox.entities.Client;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact list of orders. Each client referenced by the items appears once in {@code clients}, keyed by
+ * id, when the side-table was requested.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderListView {
+    private List<CompactOrder> items;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<Long, Client> clients;
+
+    /** Value to pass as {@code after} to fetch the next page, or {@code null} on the last or only page. */
+    private Long nextCursor;
+}
@@ -0,0 +1,39 @@
+package com.example.dataox.dto;
+
+/**
+ * Shape of order responses, chosen with the {@code view} and {@code include} request parameters.
+ */
+public enum OrderResponseView {
+    /** Counterparties as id and name next to each order; a full order with both clients on creation. */
+    DEFAULT,
+    /** Counterparties as ids only. */
+    COMPACT,
+    /** Counterparties as ids only, plus a side-table with each referenced client once. */
+    COMPACT_WITH_CLIENTS;
+
+    public static OrderResponseView parse(String view, String include) {
+        boolean compact;
+        if (view == null || view.equals("default")) {
+            compact = false;
+        } else if (view.equals("compact")) {
+            compact = true;
+        } else {
+            throw new IllegalArgumentException("view must be 'default' or 'compact'");
+        }
+        if (include == null) {
+            return compact ? COMPACT : DEFAULT;
+        }
+        if (!include.equals("clients")) {
+            throw new IllegalArgumentException("include must be 'clients'");
+        }
+        if (!compact) {
+            // Only the compact list has a place for the side-table.
+            throw new IllegalArgumentException("include=clients requires view=compact");
+        }
+        return COMPACT_WITH_CLIENTS;
+    }
+
+    public boolean isCompact() {
+        return this != DEFAULT;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class OrderTicket {
+    private UUID id;
+    private OrderTicketStatus status;
+    private Long orderId;
+    private String reason;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,7 @@
+package com.example.dataox.dto;
+
+public enum OrderTicketStatus {
+    PENDING,
+    CREATED,
+    REJECTED
+}
@@ -0,0 +1,29 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model of an order: counterparties are referenced by id and name instead of full client entities.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderView {
+    private Long id;
+    private String name;
+    private Long supplierId;
+    private String supplierName;
+    private Long consumerId;
+    private String consumerName;
+    private BigDecimal price;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,19 @@
+package com.example.dataox.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/** A committed change of one client's profit, caused by one order. */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProfitChange {
+    private Long clientId;
+    private Long orderId;
+    private BigDecimal delta;
+}
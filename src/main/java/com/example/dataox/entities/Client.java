@@ -1,5 +1,7 @@
 package com.example.dataox.entities;
 
+import com.example.dataox.money.Money;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -10,18 +12,18 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "clients")
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Data
 public class Client {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clients_seq")
+    @SequenceGenerator(name = "clients_seq", sequenceName = "clients_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -34,10 +36,19 @@ public class Client {
     private String address;
 
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal profit;
+    private Money profit;
 
     private boolean active;
 
+    /**
+     * Number of escrow shards holding this client's profit, or 0 for a regular client. For a hot client
+     * the {@code profit} column is frozen at promotion and the exact profit is the shards' total headroom
+     * above the -1000 floor. Internal, like the versions; responses report the profit only.
+     */
+    @JsonIgnore
+    @Column(nullable = false)
+    private int profitShards;
+
     private LocalDateTime deactivatedAt;
 
     @CreationTimestamp
@@ -45,4 +56,22 @@ public class Client {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    /** Bumped by every update of the row; validates the client's representation. */
+    @Version
+    @JsonIgnore
+    private Long version;
+
+    /**
+     * Bumped by every order of a regular client, as supplier or consumer; validates its order list.
+     * Orders of a hot client bump the versions of its shards instead.
+     */
+    @JsonIgnore
+    @Column(nullable = false)
+    private long orderVersion;
+
+    @JsonIgnore
+    public boolean isHot() {
+        return profitShards > 0;
+    }
 }
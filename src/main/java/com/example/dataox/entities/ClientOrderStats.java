@@ -0,0 +1,63 @@
+package com.example.dataox.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running order totals of one client for one day, maintained by upserts in the order transaction. Hot
+ * clients spread their orders over one slot per escrow shard so the row is no more contended than the
+ * shards; everyone else uses slot 0. Readers sum the slots.
+ */
+@Entity
+@Table(name = "client_order_stats")
+@IdClass(ClientOrderStats.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class ClientOrderStats {
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Id
+    @Column(name = "order_date")
+    private LocalDate orderDate;
+
+    @Id
+    private Integer slot;
+
+    /** Orders where the client is the consumer. */
+    @Column(name = "orders_bought", nullable = false)
+    private Long ordersBought;
+
+    /** Orders where the client is the supplier. */
+    @Column(name = "orders_sold", nullable = false)
+    private Long ordersSold;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal bought;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal sold;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long clientId;
+        private LocalDate orderDate;
+        private Integer slot;
+    }
+}
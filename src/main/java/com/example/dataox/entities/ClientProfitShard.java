@@ -0,0 +1,51 @@
+package com.example.dataox.entities;
+
+import com.example.dataox.money.Money;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Check;
+
+import java.io.Serializable;
+
+/**
+ * One escrow sub-balance of a hot client: the share of the client's headroom above the -1000 profit
+ * floor that orders may draw from without touching the other shards.
+ */
+@Entity
+@Table(name = "client_profit_shards")
+@IdClass(ClientProfitShard.Key.class)
+@Check(constraints = "headroom >= 0")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Data
+public class ClientProfitShard {
+    @Id
+    @Column(name = "client_id")
+    private Long clientId;
+
+    @Id
+    private Integer shard;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private Money headroom;
+
+    /** Bumped by every change of the headroom; their total validates a hot client's profit and orders. */
+    @Column(nullable = false)
+    private long version;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long clientId;
+        private Integer shard;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.dataox.entities;
 
+import com.example.dataox.money.Money;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
@@ -9,7 +10,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -20,23 +20,28 @@ import java.time.LocalDateTime;
 @Table(name = "orders",
         uniqueConstraints = {
                 @UniqueConstraint(columnNames = {"name", "supplier_id", "consumer_id"})
+        },
+        indexes = {
+                @Index(name = "idx_orders_supplier_id", columnList = "supplier_id, id"),
+                @Index(name = "idx_orders_consumer_id", columnList = "consumer_id, id")
         })
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
     private String name;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Client supplier;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Client consumer;
 
     @Min(1)
-    private BigDecimal price;
+    private Money price;
 
     private LocalDateTime startTime;
 
@@ -0,0 +1,19 @@
+package com.example.dataox.events;
+
+import com.example.dataox.entities.Client;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when a client is created, updated or deactivated, or its profit changes. Carries a
+ * detached copy of the client as it was saved; listeners react once the change is committed.
+ */
+@Data
+@AllArgsConstructor
+public class ClientChangedEvent {
+    private final Client client;
+
+    public static ClientChangedEvent of(Client client) {
+        return new ClientChangedEvent(client.toBuilder().build());
+    }
+}
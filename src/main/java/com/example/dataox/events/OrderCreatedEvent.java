@@ -0,0 +1,20 @@
+package com.example.dataox.events;
+
+import com.example.dataox.dto.CompactOrder;
+import com.example.dataox.entities.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Published when an order is stored, on every write path. Carries a snapshot that references the
+ * counterparties by id; listeners react once the order is committed.
+ */
+@Data
+@AllArgsConstructor
+public class OrderCreatedEvent {
+    private final CompactOrder order;
+
+    public static OrderCreatedEvent of(Order order) {
+        return new OrderCreatedEvent(CompactOrder.of(order));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.dataox.exceptions;
+
+/**
+ * An order with the same name, supplier and consumer already exists.
+ */
+public class DuplicateOrderException extends IllegalStateException {
+    public DuplicateOrderException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
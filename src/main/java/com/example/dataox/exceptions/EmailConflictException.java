@@ -0,0 +1,10 @@
+package com.example.dataox.exceptions;
+
+/**
+ * Another client already has the email a client was created or updated with.
+ */
+public class EmailConflictException extends IllegalStateException {
+    public EmailConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
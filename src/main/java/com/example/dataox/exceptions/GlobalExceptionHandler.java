@@ -1,5 +1,10 @@
 package com.example.dataox.exceptions;
 
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -8,9 +13,57 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * The message a client gets for a failure, also used as the reason of rejected order tickets.
+     * Database failures get a fixed message, as theirs carry SQL and constraint names. The messages are
+     * shared by client and order writes, so they name neither.
+     */
+    public static String messageOf(RuntimeException ex) {
+        if (ex instanceof OptimisticLockingFailureException) {
+            return "Client was changed concurrently, reload it and retry";
+        }
+        if (ex instanceof ConcurrencyFailureException) {
+            return "Request conflicted with a concurrent change, retry it";
+        }
+        if (ex instanceof DataIntegrityViolationException) {
+            return "Request conflicts with stored data";
+        }
+        if (ex instanceof DataAccessException) {
+            return "Request could not be stored";
+        }
+        return ex.getMessage();
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<String> handleRuntimeException(RuntimeException ex) {
-        return new ResponseEntity<>(ex.getMessage(), HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(messageOf(ex), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(TooManyOrdersException.class)
+    public ResponseEntity<String> handleTooManyOrdersException(TooManyOrdersException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ResponseEntity<String> handleConcurrencyFailureException(ConcurrencyFailureException ex) {
+        return new ResponseEntity<>(messageOf(ex), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(EmailConflictException.class)
+    public ResponseEntity<String> handleEmailConflictException(EmailConflictException ex) {
+        return new ResponseEntity<>(ex.getMessage(), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<String> handleDataIntegrityViolationException(DataIntegrityViolationException ex) {
+        return new ResponseEntity<>(messageOf(ex), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<String> handleDataAccessException(DataAccessException ex) {
+        return new ResponseEntity<>(messageOf(ex), HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
     @ExceptionHandler(IllegalArgumentException.class)
@@ -0,0 +1,10 @@
+package com.example.dataox.exceptions;
+
+/**
+ * The supplier or consumer of an order is deactivated.
+ */
+public class InactiveClientException extends IllegalStateException {
+    public InactiveClientException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.dataox.exceptions;
+
+/**
+ * An order would take the supplier's or consumer's total profit below the allowed floor.
+ */
+public class ProfitThresholdException extends IllegalStateException {
+    public ProfitThresholdException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.dataox.exceptions;
+
+import lombok.Getter;
+
+/**
+ * An order was turned away because too many orders are already in flight. Carries how long the
+ * caller should wait before retrying.
+ */
+@Getter
+public class TooManyOrdersException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyOrdersException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.dataox.feed;
+
+import com.example.dataox.config.OrderProperties;
+import com.example.dataox.dto.CompactOrder;
+import com.example.dataox.dto.ProfitChange;
+import com.example.dataox.events.OrderCreatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Change feed of committed orders and the profit changes they cause, served as server-sent events.
+ * <p>
+ * Every committed order appends an {@code order-created} event and one {@code profit-changed} event per
+ * counterparty to a bounded ring buffer, each under the next offset, which is also its SSE id. Publishing
+ * never waits for subscribers: each subscriber keeps its own position in the buffer and is drained by the
+ * delivery threads. A subscriber that falls a whole buffer behind gets an {@code overrun} event and is
+ * disconnected; when it comes back with {@code Last-Event-ID}, it resumes from the buffer, or gets a
+ * {@code reset} event first when the events it missed have already been overwritten.
+ * <p>
+ * A write that blocks for longer than the send timeout means the client stopped reading. That subscriber is
+ * dropped, and its delivery thread is replaced until the write gives up, so the other subscribers keep
+ * being served. Heartbeats and this check run on the feed's own scheduler, never on order processing threads.
+ * <p>
+ * Offsets start at the startup time in microseconds, so after a restart they stay above those handed out
+ * before, as long as the feed averaged less than a million events per second.
+ */
+@Slf4j
+@Component
+public class OrderFeed {
+    static final String ORDER_CREATED = "order-created";
+    static final String PROFIT_CHANGED = "profit-changed";
+    static final String RESET = "reset";
+    static final String OVERRUN = "overrun";
+
+    /** Most events copied out of the buffer under its lock at once. */
+    private static final int DRAIN_BATCH = 256;
+
+    private final OrderProperties.Feed settings;
+    private final Entry[] ring;
+    private final long firstOffset = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+    /** Offset of the next appended event; written under the buffer's lock. */
+    private volatile long nextOffset = firstOffset;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor delivery;
+    private final ScheduledExecutorService scheduler;
+    private final long sendTimeoutNanos;
+    private final Counter overruns;
+    private final Counter stalls;
+
+    public OrderFeed(OrderProperties orderProperties, MeterRegistry meterRegistry) {
+        this.settings = orderProperties.getFeed();
+        this.ring = new Entry[settings.getBufferSize()];
+        this.sendTimeoutNanos = settings.getSendTimeout().toNanos();
+
+        AtomicInteger counter = new AtomicInteger();
+        this.delivery = (ThreadPoolExecutor) Executors.newFixedThreadPool(settings.getDeliveryThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-feed-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.getHeartbeatInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(
+                () -> subscribers.forEach(Subscriber::heartbeat), interval, interval, TimeUnit.MILLISECONDS);
+        long check = Math.max(1, settings.getSendTimeout().toMillis() / 2);
+        scheduler.scheduleWithFixedDelay(this::dropStalled, check, check, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("orders.feed.subscribers", subscribers, Set::size)
+                .description("Open change feed subscriptions")
+                .register(meterRegistry);
+        this.overruns = Counter.builder("orders.feed.overruns")
+                .description("Subscriptions disconnected for falling a whole buffer behind")
+                .register(meterRegistry);
+        this.stalls = Counter.builder("orders.feed.stalls")
+                .description("Subscriptions dropped for a write blocked longer than the send timeout")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        CompactOrder order = event.getOrder();
+        long supplierId = order.getSupplierId();
+        long consumerId = order.getConsumerId();
+        synchronized (ring) {
+            append(ORDER_CREATED, order, supplierId, consumerId);
+            append(PROFIT_CHANGED, new ProfitChange(supplierId, order.getId(), order.getPrice()), supplierId, supplierId);
+            append(PROFIT_CHANGED, new ProfitChange(consumerId, order.getId(), order.getPrice().negate()), consumerId, consumerId);
+        }
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    /**
+     * Opens a subscription to the events after {@code lastEventId}, or to new events only without it.
+     *
+     * @param clientId when given, only events about this client are sent
+     * @throws IllegalArgumentException when {@code lastEventId} is not an offset
+     */
+    public SseEmitter subscribe(Long clientId, String lastEventId) {
+        long start;
+        boolean reset = false;
+        synchronized (ring) {
+            if (lastEventId == null || lastEventId.isBlank()) {
+                start = nextOffset;
+            } else {
+                long resumeAt = parseOffset(lastEventId) + 1;
+                long oldest = oldestOffset();
+                // Missed events were overwritten, or the id is from a feed that handed out higher offsets.
+                reset = resumeAt < oldest || resumeAt > nextOffset;
+                start = reset ? oldest : resumeAt;
+            }
+        }
+
+        SseEmitter emitter = new SseEmitter(settings.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, clientId, start, reset);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> subscriber.close());
+        subscribers.add(subscriber);
+        subscriber.schedule();
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        delivery.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void dropStalled() {
+        long now = System.nanoTime();
+        subscribers.forEach(subscriber -> subscriber.dropIfStalled(now));
+    }
+
+    /**
+     * Grows or shrinks the delivery pool by one thread per blocked write it has to make up for. Callers hold
+     * the pool's monitor.
+     */
+    private void resizeDelivery(int delta) {
+        int size = delivery.getCorePoolSize() + delta;
+        if (delta > 0) {
+            delivery.setMaximumPoolSize(size);
+            delivery.setCorePoolSize(size);
+        } else {
+            delivery.setCorePoolSize(size);
+            delivery.setMaximumPoolSize(size);
+        }
+    }
+
+    private void append(String name, Object data, long clientId, long otherClientId) {
+        long offset = nextOffset;
+        ring[slot(offset)] = new Entry(offset, name, data, clientId, otherClientId);
+        nextOffset = offset + 1;
+    }
+
+    /**
+     * Events from {@code offset} on, at most {@link #DRAIN_BATCH} of them, or {@code null} when the
+     * event at {@code offset} has already been overwritten.
+     */
+    private List<Entry> read(long offset) {
+        synchronized (ring) {
+            if (offset < oldestOffset()) {
+                return null;
+            }
+            int count = (int) Math.min(DRAIN_BATCH, nextOffset - offset);
+            List<Entry> entries = new ArrayList<>(count);
+            for (long next = offset; next < offset + count; next++) {
+                entries.add(ring[slot(next)]);
+            }
+            return entries;
+        }
+    }
+
+    private long oldestOffset() {
+        return Math.max(firstOffset, nextOffset - ring.length);
+    }
+
+    private int slot(long offset) {
+        return (int) Math.floorMod(offset, (long) ring.length);
+    }
+
+    private static long parseOffset(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Last-Event-ID must be an event id received from this feed");
+        }
+    }
+
+    private record Entry(long offset, String name, Object data, long clientId, long otherClientId) {
+        boolean matches(Long filter) {
+            return filter == null || filter == clientId || filter == otherClientId;
+        }
+    }
+
+    /**
+     * One open subscription. At most one drain of it is queued or running at a time, so its events are
+     * sent in offset order and a slow subscriber occupies at most one delivery thread.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long clientId;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        /** Offset of the next event to look at; only touched by the running drain. */
+        private long position;
+        private boolean resetPending;
+        private volatile boolean closed;
+        /** {@link System#nanoTime()} by which the running write must return, or 0 between writes. */
+        private volatile long sendDeadline;
+        /** Whether a thread was added to the pool in place of the one blocked here; guarded by the pool. */
+        private boolean replaced;
+
+        Subscriber(SseEmitter emitter, Long clientId, long position, boolean resetPending) {
+            this.emitter = emitter;
+            this.clientId = clientId;
+            this.position = position;
+            this.resetPending = resetPending;
+        }
+
+        void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                try {
+                    delivery.execute(this::drain);
+                } catch (RuntimeException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        void heartbeat() {
+            heartbeatDue.set(true);
+            schedule();
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        /**
+         * Drops the subscriber when its write is past the deadline. The emitter cannot be completed while
+         * the write holds it, so the drain does that once the write returns or the connection times out.
+         */
+        void dropIfStalled(long now) {
+            long deadline = sendDeadline;
+            if (deadline == 0 || now - deadline < 0) {
+                return;
+            }
+            synchronized (delivery) {
+                if (closed || replaced) {
+                    return;
+                }
+                replaced = true;
+                resizeDelivery(1);
+            }
+            stalls.increment();
+            log.debug("Dropping change feed subscriber blocked for more than {}", settings.getSendTimeout());
+            close();
+        }
+
+        private void send(SseEmitter.SseEventBuilder event) throws IOException {
+            sendDeadline = System.nanoTime() + sendTimeoutNanos;
+            try {
+                emitter.send(event);
+            } finally {
+                sendDeadline = 0;
+            }
+            if (closed) {
+                throw new IOException("Subscriber was dropped while the write was blocked");
+            }
+        }
+
+        private void drain() {
+            try {
+                if (resetPending) {
+                    send(SseEmitter.event().name(RESET).data(position, MediaType.APPLICATION_JSON));
+                    resetPending = false;
+                }
+                boolean sent = false;
+                List<Entry> entries;
+                while ((entries = read(position)) != null && !entries.isEmpty()) {
+                    for (Entry entry : entries) {
+                        if (entry.matches(clientId)) {
+                            send(SseEmitter.event()
+                                    .id(Long.toString(entry.offset()))
+                                    .name(entry.name())
+                                    .data(entry.data(), MediaType.APPLICATION_JSON));
+                            sent = true;
+                        }
+                        position = entry.offset() + 1;
+                    }
+                }
+                if (entries == null) {
+                    overruns.increment();
+                    send(SseEmitter.event().name(OVERRUN).data(position, MediaType.APPLICATION_JSON));
+                    close();
+                    emitter.complete();
+                    return;
+                }
+                if (heartbeatDue.getAndSet(false) && !sent) {
+                    send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away or the subscription already ended.
+                log.debug("Dropping change feed subscriber: {}", e.getMessage());
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                synchronized (delivery) {
+                    if (replaced) {
+                        replaced = false;
+                        resizeDelivery(-1);
+                    }
+                }
+                scheduled.set(false);
+            }
+            // Events appended while the flag was still set found it taken and did not schedule a drain.
+            if (position < nextOffset) {
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.example.dataox.index;
+
+import com.example.dataox.config.ClientProperties;
+import com.example.dataox.entities.Client;
+import com.example.dataox.events.ClientChangedEvent;
+import com.example.dataox.money.Money;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Clients ordered by profit and then id, held in a concurrent skip list so range and top-N queries cost
+ * O(log n + k) and never touch the database. Readers do not lock; a client that is being moved may be
+ * briefly missing from a concurrent read.
+ * <p>
+ * The index is built from the table once the application is ready and follows every committed client
+ * change, including the profit updates made by order creation. It is rebuilt from the table every
+ * {@code clients.profit-index.consistency-check-interval} on a thread of its own, which repairs drift
+ * caused by writes that bypass the application. Changes carry the client's row version, and a change
+ * older than the indexed entry is ignored, so events that arrive out of order cannot move a client back.
+ * <p>
+ * Hot clients are indexed by their exact profit, the total of their escrow shards, which is read back
+ * from the database whenever such a client changes. It is read before the index is locked, together
+ * with the total of the shard versions, which orders such reads like the row version orders changes.
+ */
+@Slf4j
+@Component
+public class ClientProfitIndex {
+    private static final Comparator<ProfitKey> ORDER = Comparator
+            .comparingLong(ProfitKey::profit)
+            .thenComparingLong(ProfitKey::id);
+
+    private final ClientProperties clientProperties;
+    private final ScheduledExecutorService consistencyChecker;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final RowMapper<Client> clientMapper = new BeanPropertyRowMapper<>(Client.class);
+
+    /** Serializes writers; readers go straight to {@link #state}. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile State state = new State();
+    private List<Change> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public ClientProfitIndex(ClientProperties clientProperties, DataSource dataSource,
+                             PlatformTransactionManager transactionManager) {
+        this.clientProperties = clientProperties;
+        this.consistencyChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "client-profit-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ClientProperties.ProfitIndex settings = clientProperties.getProfitIndex();
+        if (!settings.isEnabled()) {
+            return;
+        }
+        rebuild();
+        long interval = settings.getConsistencyCheckInterval().toMillis();
+        consistencyChecker.scheduleWithFixedDelay(this::checkConsistency, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        consistencyChecker.shutdownNow();
+    }
+
+    /**
+     * Replaces the index with the current contents of the {@code clients} table and returns how many
+     * entries differed in profit or status, or were missing or extra. Changes committed while the table
+     * is read are replayed onto the new state before it is swapped in.
+     */
+    public int rebuild() {
+        writeLock.lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            writeLock.unlock();
+        }
+
+        State fresh = new State();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    "SELECT c.id, c.name, c.email, c.address, c.active, c.profit_shards, c.deactivated_at, c.created_at, c.updated_at, " +
+                            "c.version, " +
+                            "CASE WHEN c.profit_shards > 0 THEN (SELECT SUM(s.headroom) FROM client_profit_shards s " +
+                            "WHERE s.client_id = c.id) - 1000 ELSE c.profit END AS profit, " +
+                            "CASE WHEN c.profit_shards > 0 THEN (SELECT SUM(s.version) FROM client_profit_shards s " +
+                            "WHERE s.client_id = c.id) ELSE 0 END AS shard_version FROM clients c",
+                    (RowCallbackHandler) rs -> fresh.put(new Change(clientMapper.mapRow(rs, 0), rs.getLong("shard_version")))));
+        } catch (RuntimeException ex) {
+            writeLock.lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                writeLock.unlock();
+            }
+            throw ex;
+        }
+
+        int drift;
+        writeLock.lock();
+        try {
+            changedDuringRebuild.forEach(fresh::put);
+            changedDuringRebuild = null;
+            drift = ready ? state.countDifferences(fresh) : 0;
+            state = fresh;
+            ready = true;
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Client profit index rebuilt with {} clients, {} drifted entries repaired", fresh.size(), drift);
+        return drift;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        if (!clientProperties.getProfitIndex().isEnabled()) {
+            return;
+        }
+        Change change = new Change(event.getClient(), 0);
+        if (change.client().isHot()) {
+            // Read after the commit, so the last change of a hot client indexes its latest total. Both sums come
+            // from one statement; a later read sees a higher version total and replaces an earlier one.
+            change = jdbcTemplate.queryForObject(
+                    "SELECT SUM(headroom) - 1000 AS profit, SUM(version) AS shard_version FROM client_profit_shards WHERE client_id = ?",
+                    (rs, rowNum) -> new Change(event.getClient().toBuilder().profit(Money.of(rs.getBigDecimal("profit"))).build(),
+                            rs.getLong("shard_version")),
+                    event.getClient().getId());
+        }
+        writeLock.lock();
+        try {
+            state.put(change);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(change);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready && clientProperties.getProfitIndex().isEnabled();
+    }
+
+    /**
+     * Returns up to {@code limit} clients with {@code min <= profit <= max}, ordered by profit and id,
+     * starting after the given position (exclusive) when one is supplied.
+     */
+    public List<Client> range(Money min, Money max, Money afterProfit, Long afterId, int limit) {
+        if (min.compareTo(max) > 0) {
+            return List.of();
+        }
+        NavigableMap<ProfitKey, Client> range = state.entries.subMap(
+                new ProfitKey(min.cents(), Long.MIN_VALUE), true, new ProfitKey(max.cents(), Long.MAX_VALUE), true);
+        if (afterProfit != null) {
+            range = range.tailMap(new ProfitKey(afterProfit.cents(), afterId), false);
+        }
+        return take(range.values(), limit);
+    }
+
+    /**
+     * Returns the {@code n} clients with the highest profit when {@code descending}, otherwise the lowest;
+     * ties are broken by id in the same direction.
+     */
+    public List<Client> top(int n, boolean descending) {
+        NavigableMap<ProfitKey, Client> entries = state.entries;
+        return take(descending ? entries.descendingMap().values() : entries.values(), n);
+    }
+
+    private void checkConsistency() {
+        try {
+            if (clientProperties.getProfitIndex().isEnabled()) {
+                int drift = rebuild();
+                if (drift > 0) {
+                    log.warn("Client profit index had drifted from the clients table in {} entries", drift);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Client profit index consistency check failed", ex);
+        }
+    }
+
+    private static List<Client> take(Collection<Client> clients, int limit) {
+        List<Client> result = new ArrayList<>(Math.min(limit, 1024));
+        for (Client client : clients) {
+            if (result.size() == limit) {
+                break;
+            }
+            result.add(client);
+        }
+        return result;
+    }
+
+    private static ProfitKey keyOf(Client client) {
+        return new ProfitKey(client.getProfit() == null ? 0 : client.getProfit().cents(), client.getId());
+    }
+
+    /** Profit in cents and client id. */
+    private record ProfitKey(long profit, long id) {
+    }
+
+    /** A client as read at one point, with the total of its shard versions when it is hot (else 0). */
+    private record Change(Client client, long shardVersion) {
+        boolean isOlderThan(Change other) {
+            int rows = Long.compare(rowVersion(), other.rowVersion());
+            return rows < 0 || (rows == 0 && shardVersion < other.shardVersion);
+        }
+
+        private long rowVersion() {
+            return client.getVersion() == null ? -1 : client.getVersion();
+        }
+    }
+
+    /** Where a client is indexed and the change it was indexed from. */
+    private record Indexed(ProfitKey key, Change change) {
+    }
+
+    private static final class State {
+        private final ConcurrentSkipListMap<ProfitKey, Client> entries = new ConcurrentSkipListMap<>(ORDER);
+        private final Map<Long, Indexed> indexed = new ConcurrentHashMap<>();
+
+        /** Indexes the client unless the indexed entry comes from a later version of it. */
+        void put(Change change) {
+            Client client = change.client();
+            Indexed previous = indexed.get(client.getId());
+            if (previous != null) {
+                if (change.isOlderThan(previous.change())) {
+                    return;
+                }
+                entries.remove(previous.key());
+            }
+            ProfitKey key = keyOf(client);
+            indexed.put(client.getId(), new Indexed(key, change));
+            entries.put(key, client);
+        }
+
+        int size() {
+            return indexed.size();
+        }
+
+        int countDifferences(State other) {
+            int differences = 0;
+            for (Map.Entry<Long, Indexed> entry : indexed.entrySet()) {
+                Indexed otherEntry = other.indexed.get(entry.getKey());
+                if (otherEntry == null || ORDER.compare(entry.getValue().key(), otherEntry.key()) != 0
+                        || entry.getValue().change().client().isActive() != otherEntry.change().client().isActive()) {
+                    differences++;
+                }
+            }
+            for (Long id : other.indexed.keySet()) {
+                if (!indexed.containsKey(id)) {
+                    differences++;
+                }
+            }
+            return differences;
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.dataox.index;
+
+import com.example.dataox.config.ClientProperties;
+import com.example.dataox.entities.Client;
+import com.example.dataox.events.ClientChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over client name, email and address. A search looks up the posting list of
+ * every trigram of every term, intersects them starting from the shortest, and confirms each candidate
+ * with a substring check, giving the same matches as the case-insensitive {@code LIKE '%term%'} query
+ * without scanning the table.
+ * <p>
+ * The index is rebuilt from the table on startup and kept current from committed client changes.
+ * Rows written behind the application's back are picked up on the next {@link #rebuild()}.
+ */
+@Slf4j
+@Component
+public class ClientSearchIndex {
+    private static final int FIELD_COUNT = 3;
+    private static final int GRAM = 3;
+
+    private final ClientProperties clientProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private List<Client> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public ClientSearchIndex(ClientProperties clientProperties, DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.clientProperties = clientProperties;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (clientProperties.getSearchIndex().isEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Rebuilds the index from the {@code clients} table. Searches keep using the previous state until the
+     * new one is complete; changes committed meanwhile are replayed onto it before it is swapped in.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State fresh = new State();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    "SELECT id, name, email, address FROM clients",
+                    (RowCallbackHandler) rs -> fresh.put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4))));
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach(client -> fresh.put(client.getId(), client.getName(), client.getEmail(), client.getAddress()));
+            changedDuringRebuild = null;
+            state = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Client search index rebuilt with {} clients", fresh.size);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        if (!clientProperties.getSearchIndex().isEnabled()) {
+            return;
+        }
+        Client client = event.getClient();
+        lock.writeLock().lock();
+        try {
+            state.put(client.getId(), client.getName(), client.getEmail(), client.getAddress());
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(client);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether {@link #search} can answer this query. Terms shorter than a trigram have no postings and SQL
+     * {@code LIKE} wildcards change a term's meaning, so such queries, and all queries before the first
+     * rebuild, must go to the database.
+     */
+    public boolean canSearch(String name, String email, String address) {
+        return ready
+                && clientProperties.getSearchIndex().isEnabled()
+                && (name != null || email != null || address != null)
+                && isIndexable(name) && isIndexable(email) && isIndexable(address);
+    }
+
+    /**
+     * Returns the ids, in ascending order, of clients whose fields contain every given term, ignoring case.
+     */
+    public List<Long> search(String name, String email, String address) {
+        String[] terms = {lower(name), lower(email), lower(address)};
+        lock.readLock().lock();
+        try {
+            return state.search(terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isIndexable(String term) {
+        return term == null || (term.length() >= GRAM && term.indexOf('%') < 0 && term.indexOf('_') < 0 && term.indexOf('\\') < 0);
+    }
+
+    private static String lower(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Packs the field and three characters into one key. {@link Long#hashCode} folds the high half onto the
+     * low half, which for packed characters collides massively, so the packed value goes through the
+     * (invertible, hence still unique) murmur3 finalizer before it reaches the postings map.
+     */
+    private static long trigramKey(int field, String value, int offset) {
+        long key = ((long) field << 48)
+                | ((long) value.charAt(offset) << 32)
+                | ((long) value.charAt(offset + 1) << 16)
+                | value.charAt(offset + 2);
+        return Hashing.fmix64(key);
+    }
+
+    /** Index contents; guarded by the enclosing index's read-write lock. */
+    private static final class State {
+        private long[] clientIds = new long[1024];
+        private final String[][] values = new String[FIELD_COUNT][1024];
+        private int size;
+        private final Map<Long, Integer> docByClientId = new HashMap<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+
+        void put(long clientId, String name, String email, String address) {
+            String[] fresh = {lower(name), lower(email), lower(address)};
+            Integer doc = docByClientId.get(clientId);
+            if (doc == null) {
+                doc = size++;
+                ensureCapacity(size);
+                clientIds[doc] = clientId;
+                docByClientId.put(clientId, doc);
+            }
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                String previous = values[field][doc];
+                if (previous != null && previous.equals(fresh[field])) {
+                    continue;
+                }
+                if (previous != null) {
+                    removeTrigrams(field, previous, doc);
+                }
+                if (fresh[field] != null) {
+                    addTrigrams(field, fresh[field], doc);
+                }
+                values[field][doc] = fresh[field];
+            }
+        }
+
+        List<Long> search(String[] terms) {
+            List<Postings> lists = new ArrayList<>();
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                String term = terms[field];
+                if (term == null) {
+                    continue;
+                }
+                for (int i = 0; i + GRAM <= term.length(); i++) {
+                    Postings list = postings.get(trigramKey(field, term, i));
+                    if (list == null) {
+                        return List.of();
+                    }
+                    lists.add(list);
+                }
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            int[] candidates = Arrays.copyOf(lists.get(0).docs, lists.get(0).size);
+            int count = candidates.length;
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                count = lists.get(i).retainAll(candidates, count);
+            }
+
+            List<Long> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int doc = candidates[i];
+                if (matches(doc, terms)) {
+                    result.add(clientIds[doc]);
+                }
+            }
+            result.sort(null);
+            return result;
+        }
+
+        private boolean matches(int doc, String[] terms) {
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                String term = terms[field];
+                if (term != null && (values[field][doc] == null || !values[field][doc].contains(term))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void addTrigrams(int field, String value, int doc) {
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                postings.computeIfAbsent(trigramKey(field, value, i), key -> new Postings()).add(doc);
+            }
+        }
+
+        private void removeTrigrams(int field, String value, int doc) {
+            for (int i = 0; i + GRAM <= value.length(); i++) {
+                long key = trigramKey(field, value, i);
+                Postings list = postings.get(key);
+                if (list != null && list.remove(doc) && list.size == 0) {
+                    postings.remove(key);
+                }
+            }
+        }
+
+        private void ensureCapacity(int required) {
+            if (required <= clientIds.length) {
+                return;
+            }
+            int capacity = Math.max(required, clientIds.length * 2);
+            clientIds = Arrays.copyOf(clientIds, capacity);
+            for (int field = 0; field < FIELD_COUNT; field++) {
+                values[field] = Arrays.copyOf(values[field], capacity);
+            }
+        }
+    }
+
+    /** Sorted, duplicate-free list of document numbers containing one trigram. */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            int index = size > 0 && docs[size - 1] < doc ? size : Arrays.binarySearch(docs, 0, size, doc);
+            if (index >= 0 && index < size) {
+                return;
+            }
+            int insertAt = index < 0 ? -index - 1 : index;
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            System.arraycopy(docs, insertAt, docs, insertAt + 1, size - insertAt);
+            docs[insertAt] = doc;
+            size++;
+        }
+
+        boolean remove(int doc) {
+            int index = Arrays.binarySearch(docs, 0, size, doc);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(docs, index + 1, docs, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /** Keeps only the candidates present in this list; returns how many remain at the front of the array. */
+        int retainAll(int[] candidates, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count; i++) {
+                int found = Arrays.binarySearch(docs, from, size, candidates[i]);
+                if (found >= 0) {
+                    candidates[kept++] = candidates[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+            return kept;
+        }
+    }
+}
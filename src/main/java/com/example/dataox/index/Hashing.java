@@ -0,0 +1,19 @@
+package com.example.dataox.index;
+
+/**
+ * Hash helpers shared by the in-memory indexes.
+ */
+final class Hashing {
+    private Hashing() {
+    }
+
+    /** The MurmurHash3 64-bit finalizer: every input bit affects every output bit. */
+    static long fmix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.dataox.index;
+
+import com.example.dataox.config.OrderProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free Bloom filter of order business keys (name, supplier, consumer). A negative answer means no
+ * stored order has the key; a positive one may be a false positive and must be confirmed against the
+ * table. Keys are never removed, so deleted orders only add false positives.
+ * <p>
+ * The filter is seeded from the {@code orders} table once the application is ready. Keys added while
+ * it is seeded are kept, and until seeding finishes every lookup answers "maybe".
+ */
+@Slf4j
+@Component
+public class OrderKeyFilter {
+    private final OrderProperties orderProperties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+    private volatile boolean ready;
+
+    public OrderKeyFilter(OrderProperties orderProperties, DataSource dataSource, PlatformTransactionManager transactionManager) {
+        OrderProperties.Precheck settings = orderProperties.getPrecheck();
+        long keys = Math.max(1, settings.getExpectedKeys());
+        double fpp = settings.getFalsePositiveRate();
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("orders.precheck.false-positive-rate must be between 0 and 1");
+        }
+        long words = Math.max(1, (long) Math.ceil(-keys * Math.log(fpp) / (Math.log(2) * Math.log(2)) / 64));
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("orders.precheck.expected-keys is too large");
+        }
+        this.orderProperties = orderProperties;
+        this.bits = new AtomicLongArray((int) words);
+        this.bitCount = words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / keys * Math.log(2)));
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!orderProperties.getPrecheck().isEnabled()) {
+            return;
+        }
+        long[] count = new long[1];
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                "SELECT name, supplier_id, consumer_id FROM orders",
+                (RowCallbackHandler) rs -> {
+                    add(rs.getString(1), rs.getLong(2), rs.getLong(3));
+                    count[0]++;
+                }));
+        ready = true;
+        log.info("Order key filter seeded with {} keys ({} bits, {} hashes)", count[0], bitCount, hashCount);
+    }
+
+    public void add(String name, Long supplierId, Long consumerId) {
+        long hash = hash(name, supplierId, consumerId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = bits.get(word)) & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                // Another writer changed the word; retry with its value.
+            }
+        }
+    }
+
+    /** {@code false} only if no order with this key has been added; {@code true} while not yet seeded. */
+    public boolean mightContain(String name, Long supplierId, Long consumerId) {
+        if (!ready) {
+            return true;
+        }
+        long hash = hash(name, supplierId, consumerId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 64-bit FNV-1a over the key, finished with the MurmurHash3 mixer so both halves are well spread. */
+    private static long hash(String name, Long supplierId, Long consumerId) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            h = (h ^ name.charAt(i)) * 0x100000001b3L;
+        }
+        h = (h ^ supplierId) * 0x100000001b3L;
+        h = (h ^ consumerId) * 0x100000001b3L;
+        return Hashing.fmix64(h);
+    }
+}
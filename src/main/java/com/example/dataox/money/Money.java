@@ -0,0 +1,171 @@
+package com.example.dataox.money;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Amount of money held as a {@code long} number of minor units (cents), matching the {@code NUMERIC(19, 2)}
+ * columns. Instances are immutable. Code on the order path works on {@link #cents()} and the static
+ * helpers so that checks and arithmetic allocate nothing; a {@code Money} is created only to store a result.
+ * <p>
+ * In JSON it is written and read as a plain decimal number, the same format {@link BigDecimal} had.
+ */
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public final class Money implements Comparable<Money>, Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Digits after the decimal point. */
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /** Whole units, e.g. {@code Money.of(-1000)} for -1000.00. */
+    public static Money of(long units) {
+        return ofCents(multiplyExact(units, 100));
+    }
+
+    /**
+     * Converts a decimal amount.
+     *
+     * @throws IllegalArgumentException if it has more than two decimal places or does not fit in a long of cents
+     */
+    public static Money of(BigDecimal amount) {
+        return ofCents(toCents(amount));
+    }
+
+    /** Like {@link #of(BigDecimal)}, but without creating a {@code Money}. */
+    public static long toCents(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException ex) {
+            if (amount.stripTrailingZeros().scale() > SCALE) {
+                throw new IllegalArgumentException("Amount " + amount.toPlainString() + " must have at most " + SCALE + " decimal places");
+            }
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is out of range");
+        }
+    }
+
+    /** Overflow-checked sum of two amounts in cents. */
+    public static long addExact(long a, long b) {
+        try {
+            return Math.addExact(a, b);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount is out of range");
+        }
+    }
+
+    /** Overflow-checked difference of two amounts in cents. */
+    public static long subtractExact(long a, long b) {
+        try {
+            return Math.subtractExact(a, b);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount is out of range");
+        }
+    }
+
+    private static long multiplyExact(long a, long b) {
+        try {
+            return Math.multiplyExact(a, b);
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount is out of range");
+        }
+    }
+
+    public long cents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(subtractExact(cents, other.cents));
+    }
+
+    public Money negate() {
+        return ofCents(subtractExact(0, cents));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Money other && cents == other.cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    static final class Serializer extends JsonSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeNumber(value.toBigDecimal());
+        }
+    }
+
+    static final class Deserializer extends JsonDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.currentToken() == JsonToken.VALUE_STRING) {
+                String text = p.getText().trim();
+                try {
+                    return Money.of(new BigDecimal(text));
+                } catch (IllegalArgumentException ex) {
+                    return (Money) ctxt.handleWeirdStringValue(Money.class, text, ex.getMessage());
+                }
+            }
+            BigDecimal amount = p.getDecimalValue();
+            try {
+                return Money.of(amount);
+            } catch (IllegalArgumentException ex) {
+                return (Money) ctxt.handleWeirdNumberValue(Money.class, amount, ex.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.dataox.money;
+
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.constraints.Min;
+
+/**
+ * Lets {@link Min} check {@link Money} values in whole units, as it did for {@code BigDecimal}. Registered
+ * through {@code META-INF/services/jakarta.validation.ConstraintValidator}.
+ */
+public class MoneyMinValidator implements ConstraintValidator<Min, Money> {
+    private long min;
+
+    @Override
+    public void initialize(Min constraint) {
+        min = constraint.value();
+    }
+
+    @Override
+    public boolean isValid(Money value, ConstraintValidatorContext context) {
+        // cents >= min * 100 without overflowing for large minimums.
+        return value == null || Math.floorDiv(value.cents(), 100) >= min;
+    }
+}
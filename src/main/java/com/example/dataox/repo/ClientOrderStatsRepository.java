@@ -0,0 +1,25 @@
+package com.example.dataox.repo;
+
+import com.example.dataox.dto.ClientDailyStats;
+import com.example.dataox.entities.ClientOrderStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ClientOrderStatsRepository extends JpaRepository<ClientOrderStats, ClientOrderStats.Key> {
+
+    /** Sums of all rollup rows of a client: bought count, sold count, bought, sold, first and last day. */
+    @Query("SELECT SUM(s.ordersBought), SUM(s.ordersSold), SUM(s.bought), SUM(s.sold), MIN(s.orderDate), MAX(s.orderDate) " +
+            "FROM ClientOrderStats s WHERE s.clientId = :clientId")
+    List<Object[]> sumByClientId(@Param("clientId") Long clientId);
+
+    @Query("SELECT new com.example.dataox.dto.ClientDailyStats(s.orderDate, SUM(s.ordersBought), SUM(s.ordersSold), SUM(s.bought), SUM(s.sold)) " +
+            "FROM ClientOrderStats s WHERE s.clientId = :clientId AND s.orderDate BETWEEN :from AND :to " +
+            "GROUP BY s.orderDate ORDER BY s.orderDate")
+    List<ClientDailyStats> findDaily(@Param("clientId") Long clientId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
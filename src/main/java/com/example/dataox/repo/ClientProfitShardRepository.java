@@ -0,0 +1,40 @@
+package com.example.dataox.repo;
+
+import com.example.dataox.entities.ClientProfitShard;
+import com.example.dataox.money.Money;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ClientProfitShardRepository extends JpaRepository<ClientProfitShard, ClientProfitShard.Key> {
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ClientProfitShard s SET s.headroom = s.headroom + :amount, s.version = s.version + 1 WHERE s.clientId = :clientId AND s.shard = :shard")
+    int deposit(@Param("clientId") Long clientId, @Param("shard") int shard, @Param("amount") Money amount);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE ClientProfitShard s SET s.headroom = s.headroom - :amount, s.version = s.version + 1 " +
+            "WHERE s.clientId = :clientId AND s.shard = :shard AND s.headroom >= :amount")
+    int withdraw(@Param("clientId") Long clientId, @Param("shard") int shard, @Param("amount") Money amount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ClientProfitShard s WHERE s.clientId = :clientId ORDER BY s.shard")
+    List<ClientProfitShard> findAllByClientIdForUpdate(@Param("clientId") Long clientId);
+
+    @Query("SELECT SUM(s.headroom) FROM ClientProfitShard s WHERE s.clientId = :clientId")
+    BigDecimal sumHeadroom(@Param("clientId") Long clientId);
+
+    @Query("SELECT SUM(s.version) FROM ClientProfitShard s WHERE s.clientId = :clientId")
+    Long sumVersion(@Param("clientId") Long clientId);
+
+    @Query("SELECT s.clientId, SUM(s.headroom) FROM ClientProfitShard s WHERE s.clientId IN :clientIds GROUP BY s.clientId")
+    List<Object[]> sumHeadroomByClientId(@Param("clientIds") Collection<Long> clientIds);
+}
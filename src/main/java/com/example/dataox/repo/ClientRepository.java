@@ -1,19 +1,33 @@
 package com.example.dataox.repo;
 
 import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ClientRepository extends JpaRepository<Client, Long> {
+    /** Exact profit in JPQL: hot clients hold it in their escrow shards, above the -1000 floor. */
+    String EFFECTIVE_PROFIT = "(CASE WHEN c.profitShards > 0 " +
+            "THEN (SELECT SUM(s.headroom) FROM ClientProfitShard s WHERE s.clientId = c.id) - 1000 " +
+            "ELSE c.profit END)";
+
     @Query("SELECT c FROM Client c WHERE " +
             "(:name IS NULL OR LOWER(c.name) LIKE CONCAT('%', LOWER(CAST(:name as string)), '%')) AND " +
             "(:email IS NULL OR LOWER(c.email) LIKE CONCAT('%', LOWER(CAST(:email as string)), '%')) AND " +
@@ -22,11 +36,46 @@ public interface ClientRepository extends JpaRepository<Client, Long> {
                                @Param("email") String email,
                                @Param("address") String address);
 
-    @Query("SELECT c FROM Client c WHERE c.profit BETWEEN :minProfit AND :maxProfit")
-    List<Client> findByProfitRange(@Param("minProfit") BigDecimal minProfit,
-                                   @Param("maxProfit") BigDecimal maxProfit);
+    @Query("SELECT c FROM Client c WHERE " + EFFECTIVE_PROFIT + " BETWEEN :minProfit AND :maxProfit")
+    List<Client> findByProfitRange(@Param("minProfit") Money minProfit,
+                                   @Param("maxProfit") Money maxProfit);
+
+    @Query("SELECT c FROM Client c WHERE " + EFFECTIVE_PROFIT + " BETWEEN :minProfit AND :maxProfit " +
+            "AND (" + EFFECTIVE_PROFIT + " > :afterProfit OR (" + EFFECTIVE_PROFIT + " = :afterProfit AND c.id > :afterId)) " +
+            "ORDER BY " + EFFECTIVE_PROFIT + ", c.id")
+    List<Client> findByProfitRangeAfter(@Param("minProfit") Money minProfit,
+                                        @Param("maxProfit") Money maxProfit,
+                                        @Param("afterProfit") Money afterProfit,
+                                        @Param("afterId") Long afterId,
+                                        Limit limit);
+
+    @Query("SELECT c FROM Client c ORDER BY " + EFFECTIVE_PROFIT + " ASC, c.id ASC")
+    List<Client> findAllByOrderByProfitAscIdAsc(Limit limit);
+
+    @Query("SELECT c FROM Client c ORDER BY " + EFFECTIVE_PROFIT + " DESC, c.id DESC")
+    List<Client> findAllByOrderByProfitDescIdDesc(Limit limit);
+
+    List<Client> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT c FROM Client c ORDER BY c.id")
+    Stream<Client> streamAll();
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT c FROM Client c WHERE c.id = :id")
     Optional<Client> findByIdForUpdate(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Client c WHERE c.id IN :ids ORDER BY c.id")
+    List<Client> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    /** {@code floor} is compared with the sum, which Hibernate types as the column's {@code BigDecimal}. */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Client c SET c.profit = c.profit + :delta, c.updatedAt = :now, " +
+            "c.version = c.version + 1, c.orderVersion = c.orderVersion + 1 " +
+            "WHERE c.id = :id AND c.active = true AND c.profitShards = 0 AND c.profit + :delta >= :floor")
+    int applyProfitDelta(@Param("id") Long id,
+                         @Param("delta") Money delta,
+                         @Param("floor") BigDecimal floor,
+                         @Param("now") LocalDateTime now);
 }
\ No newline at end of file
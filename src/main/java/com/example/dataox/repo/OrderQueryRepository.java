@@ -0,0 +1,201 @@
+package com.example.dataox.repo;
+
+import com.example.dataox.dto.ClientProfitReportRow;
+import com.example.dataox.dto.OrderExportFilter;
+import com.example.dataox.dto.OrderView;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Projection queries for the order read endpoints. Rows are mapped straight to {@link OrderView},
+ * so no Order or Client entities are loaded or tracked.
+ */
+@Repository
+public class OrderQueryRepository {
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String SELECT_VIEW = """
+            SELECT o.id, o.name, o.supplier_id, s.name AS supplier_name, o.consumer_id, c.name AS consumer_name,
+                   o.price, o.start_time, o.end_time, o.created_at
+            FROM orders o
+            JOIN clients s ON s.id = o.supplier_id
+            JOIN clients c ON c.id = o.consumer_id
+            """;
+
+    // One branch per counterparty column, so each can use its (counterparty_id, id) index instead of
+    // an OR that forces a full scan. UNION also removes the duplicate when a client trades with itself.
+    private static final String SELECT_CLIENT_ORDERS = "(" + SELECT_VIEW + """
+            WHERE o.supplier_id = :clientId AND o.id > :after ORDER BY o.id %1$s)
+            UNION
+            (""" + SELECT_VIEW + """
+            WHERE o.consumer_id = :clientId AND o.id > :after ORDER BY o.id %1$s)
+            ORDER BY id %1$s
+            """;
+
+    // Orders matching an export filter, one row per order and direction. The profit report sums them per
+    // client; the union keeps both branches on their (counterparty_id, id) indexes.
+    private static final String SELECT_REPORT = """
+            SELECT c.id, c.name, c.email, c.active,
+                   CASE WHEN c.profit_shards > 0 THEN (SELECT SUM(s.headroom) FROM client_profit_shards s
+                       WHERE s.client_id = c.id) - 1000 ELSE c.profit END AS profit,
+                   COALESCE(t.orders, 0) AS orders, COALESCE(t.income, 0) AS income, COALESCE(t.expense, 0) AS expense
+            FROM clients c
+            LEFT JOIN (
+                SELECT client_id, COUNT(*) AS orders, SUM(income) AS income, SUM(expense) AS expense
+                FROM (
+                    SELECT o.supplier_id AS client_id, o.price AS income, 0 AS expense FROM orders o WHERE %1$s
+                    UNION ALL
+                    SELECT o.consumer_id AS client_id, 0 AS income, o.price AS expense FROM orders o WHERE %2$s
+                ) directed
+                GROUP BY client_id
+            ) t ON t.client_id = c.id
+            %3$s
+            ORDER BY c.id
+            """;
+
+    private static final RowMapper<OrderView> ORDER_VIEW_MAPPER = (rs, rowNum) -> OrderView.builder()
+            .id(rs.getLong("id"))
+            .name(rs.getString("name"))
+            .supplierId(rs.getLong("supplier_id"))
+            .supplierName(rs.getString("supplier_name"))
+            .consumerId(rs.getLong("consumer_id"))
+            .consumerName(rs.getString("consumer_name"))
+            .price(rs.getBigDecimal("price"))
+            .startTime(rs.getObject("start_time", LocalDateTime.class))
+            .endTime(rs.getObject("end_time", LocalDateTime.class))
+            .createdAt(rs.getObject("created_at", LocalDateTime.class))
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+
+    public OrderQueryRepository(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.getJdbcTemplate().setFetchSize(STREAM_FETCH_SIZE);
+    }
+
+    public List<OrderView> findAll() {
+        return jdbcTemplate.query(SELECT_VIEW + "ORDER BY o.id", ORDER_VIEW_MAPPER);
+    }
+
+    public Optional<OrderView> findById(Long id) {
+        return jdbcTemplate.query(SELECT_VIEW + "WHERE o.id = :id", new MapSqlParameterSource("id", id), ORDER_VIEW_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    public List<OrderView> findPage(long after, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("after", after)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SELECT_VIEW + "WHERE o.id > :after ORDER BY o.id LIMIT :limit", params, ORDER_VIEW_MAPPER);
+    }
+
+    /**
+     * Streams every order through a forward-only cursor. Must run inside a transaction so that
+     * PostgreSQL honours the fetch size instead of materializing the whole result.
+     */
+    public void streamAll(Consumer<OrderView> consumer) {
+        streamingJdbcTemplate.query(SELECT_VIEW + "ORDER BY o.id", new MapSqlParameterSource(),
+                (RowCallbackHandler) rs -> consumer.accept(ORDER_VIEW_MAPPER.mapRow(rs, 0)));
+    }
+
+    /**
+     * Streams the orders matching the filter in id order through a forward-only cursor. Like
+     * {@link #streamAll}, it must run inside a (read-only) transaction.
+     */
+    public void streamExport(OrderExportFilter filter, Consumer<OrderView> consumer) {
+        MapSqlParameterSource params = exportParams(filter);
+        String conditions = exportConditions(filter);
+        String sql = filter.getClientId() == null
+                ? SELECT_VIEW + "WHERE " + conditions + " ORDER BY o.id"
+                : "(" + SELECT_VIEW + "WHERE o.supplier_id = :clientId AND " + conditions + ")\nUNION\n("
+                        + SELECT_VIEW + "WHERE o.consumer_id = :clientId AND " + conditions + ")\nORDER BY id";
+        streamingJdbcTemplate.query(sql, params,
+                (RowCallbackHandler) rs -> consumer.accept(ORDER_VIEW_MAPPER.mapRow(rs, 0)));
+    }
+
+    /**
+     * Streams one {@link ClientProfitReportRow} per client (or only the filtered client) in id order. The
+     * date and price filters apply to the summed orders; clients without matching orders report zeros.
+     */
+    public void streamProfitReport(OrderExportFilter filter, Consumer<ClientProfitReportRow> consumer) {
+        String conditions = exportConditions(filter);
+        // A single client's report restricts each branch to its counterparty index, so only its orders are summed.
+        String sql = filter.getClientId() == null
+                ? SELECT_REPORT.formatted(conditions, conditions, "")
+                : SELECT_REPORT.formatted("o.supplier_id = :clientId AND " + conditions,
+                        "o.consumer_id = :clientId AND " + conditions, "WHERE c.id = :clientId");
+        streamingJdbcTemplate.query(sql, exportParams(filter), (RowCallbackHandler) rs -> consumer.accept(
+                ClientProfitReportRow.builder()
+                        .clientId(rs.getLong("id"))
+                        .name(rs.getString("name"))
+                        .email(rs.getString("email"))
+                        .active(rs.getBoolean("active"))
+                        .profit(rs.getBigDecimal("profit"))
+                        .orders(rs.getLong("orders"))
+                        .income(rs.getBigDecimal("income"))
+                        .expense(rs.getBigDecimal("expense"))
+                        .build()));
+    }
+
+    public List<OrderView> findByClientId(Long clientId) {
+        return jdbcTemplate.query(clientOrdersSql(false), clientOrdersParams(clientId, 0L, 0), ORDER_VIEW_MAPPER);
+    }
+
+    public List<OrderView> findByClientIdPage(Long clientId, long after, int limit) {
+        return jdbcTemplate.query(clientOrdersSql(true), clientOrdersParams(clientId, after, limit), ORDER_VIEW_MAPPER);
+    }
+
+    public void streamByClientId(Long clientId, Consumer<OrderView> consumer) {
+        streamingJdbcTemplate.query(clientOrdersSql(false), clientOrdersParams(clientId, 0L, 0),
+                (RowCallbackHandler) rs -> consumer.accept(ORDER_VIEW_MAPPER.mapRow(rs, 0)));
+    }
+
+    private static String exportConditions(OrderExportFilter filter) {
+        StringBuilder conditions = new StringBuilder("1 = 1");
+        if (filter.getFrom() != null) {
+            conditions.append(" AND o.created_at >= :from");
+        }
+        if (filter.getTo() != null) {
+            conditions.append(" AND o.created_at < :to");
+        }
+        if (filter.getMinPrice() != null) {
+            conditions.append(" AND o.price >= :minPrice");
+        }
+        if (filter.getMaxPrice() != null) {
+            conditions.append(" AND o.price <= :maxPrice");
+        }
+        return conditions.toString();
+    }
+
+    private static MapSqlParameterSource exportParams(OrderExportFilter filter) {
+        return new MapSqlParameterSource()
+                .addValue("clientId", filter.getClientId())
+                .addValue("from", filter.getFrom())
+                .addValue("to", filter.getTo())
+                .addValue("minPrice", filter.getMinPrice())
+                .addValue("maxPrice", filter.getMaxPrice());
+    }
+
+    private static String clientOrdersSql(boolean limited) {
+        return SELECT_CLIENT_ORDERS.formatted(limited ? "LIMIT :limit" : "");
+    }
+
+    private static MapSqlParameterSource clientOrdersParams(Long clientId, long after, int limit) {
+        return new MapSqlParameterSource()
+                .addValue("clientId", clientId)
+                .addValue("after", after)
+                .addValue("limit", limit);
+    }
+}
@@ -6,10 +6,19 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    @Query("SELECT o FROM Order o WHERE o.supplier.id = :clientId OR o.consumer.id = :clientId")
-    List<Order> findByClientId(@Param("clientId") Long clientId);
-}
\ No newline at end of file
+    @Query("SELECT o.name, o.supplier.id, o.consumer.id FROM Order o " +
+            "WHERE o.name IN :names AND o.supplier.id IN :clientIds AND o.consumer.id IN :clientIds")
+    List<Object[]> findBusinessKeys(@Param("names") Collection<String> names,
+                                    @Param("clientIds") Collection<Long> clientIds);
+
+    @Query("SELECT COUNT(o) > 0 FROM Order o " +
+            "WHERE o.name = :name AND o.supplier.id = :supplierId AND o.consumer.id = :consumerId")
+    boolean existsByBusinessKey(@Param("name") String name,
+                                @Param("supplierId") Long supplierId,
+                                @Param("consumerId") Long consumerId);
+}
@@ -0,0 +1,127 @@
+package com.example.dataox.services;
+
+import com.example.dataox.config.ClientProperties;
+import com.example.dataox.dto.ClientCacheStats;
+import com.example.dataox.entities.Client;
+import com.example.dataox.events.ClientChangedEvent;
+import com.example.dataox.repo.ClientRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import com.example.dataox.config.DataSourceRouting;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Read-through cache of clients by id. Entries are detached copies and every lookup returns a fresh
+ * copy, so callers may not corrupt the cache. Committed client changes replace the cached entry, if
+ * there is one, so bulk writes do not evict the clients being read; a rolled-back transaction
+ * publishes nothing, so its values never reach the cache.
+ * <p>
+ * Loading and replacing the same key are serialized by the cache, so a load that read the row before a
+ * commit cannot overwrite the value published by that commit.
+ * <p>
+ * Loaded clients are detached from the persistence context they were read in, so a later transaction
+ * sharing it cannot get a stale managed instance from its {@code SELECT ... FOR UPDATE} instead of the
+ * locked row.
+ * <p>
+ * Entries are loaded in their own transaction on the primary: one read from a lagging replica would be
+ * served until it expires, long after the replica caught up.
+ */
+@Component
+public class ClientCache {
+    private final ClientRepository clientRepository;
+    private final EntityManager entityManager;
+    private final boolean enabled;
+    private final Cache<Long, Client> cache;
+    private final TransactionTemplate loadTransaction;
+
+    public ClientCache(ClientRepository clientRepository, EntityManager entityManager,
+                       ClientProperties clientProperties, MeterRegistry meterRegistry,
+                       PlatformTransactionManager transactionManager) {
+        ClientProperties.Cache settings = clientProperties.getCache();
+        this.clientRepository = clientRepository;
+        this.entityManager = entityManager;
+        this.enabled = settings.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumSize())
+                .expireAfterWrite(settings.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "clients");
+        this.loadTransaction = new TransactionTemplate(transactionManager);
+        this.loadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransaction.setReadOnly(true);
+    }
+
+    public Optional<Client> findById(Long id) {
+        if (!enabled) {
+            return load(id);
+        }
+        Client cached = cache.get(id, key -> DataSourceRouting.onPrimary(
+                () -> loadTransaction.execute(status -> load(key).orElse(null))));
+        return Optional.ofNullable(cached).map(ClientCache::copy);
+    }
+
+    public boolean existsById(Long id) {
+        if (!enabled) {
+            return clientRepository.existsById(id);
+        }
+        return findById(id).isPresent();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClientChanged(ClientChangedEvent event) {
+        if (enabled) {
+            Client changed = event.getClient();
+            cache.asMap().computeIfPresent(changed.getId(),
+                    (id, cached) -> versionOf(cached) > versionOf(changed) ? cached : copy(changed));
+        }
+    }
+
+    private Optional<Client> load(Long id) {
+        return clientRepository.findById(id).map(client -> {
+            if (entityManager.contains(client)) {
+                entityManager.detach(client);
+            }
+            return client;
+        });
+    }
+
+    /** Drops every entry, for writes that bypass the change events such as bulk deletes. */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public ClientCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return ClientCacheStats.builder()
+                .enabled(enabled)
+                .size(cache.estimatedSize())
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .build();
+    }
+
+    /**
+     * Row version of a client, -1 when unknown. Events of one client may be delivered out of commit order,
+     * so an older version must not replace the cached one.
+     */
+    private static long versionOf(Client client) {
+        return client.getVersion() == null ? -1 : client.getVersion();
+    }
+
+    private static Client copy(Client client) {
+        return client.toBuilder().build();
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.dataox.services;
+
+import com.example.dataox.config.ClientProperties;
+import com.example.dataox.dto.ClientImportRejection;
+import com.example.dataox.dto.ClientImportResult;
+import com.example.dataox.entities.Client;
+import com.example.dataox.events.ClientChangedEvent;
+import com.example.dataox.money.Money;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk import of clients from CSV or newline-delimited JSON. The body is read line by line, so memory
+ * holds one chunk of rows plus the set of known emails, whatever the file size. Rows are validated and
+ * checked for duplicate emails against the table and the earlier rows of the file, then inserted with
+ * JDBC batches, one transaction per {@code clients.bulk-import.chunk-size} rows. Ids are taken from
+ * {@code clients_seq} in the same pooled blocks Hibernate uses.
+ * <p>
+ * A chunk that fails in the database, typically because a concurrent request took one of its emails,
+ * is retried row by row so only the offending rows are rejected.
+ */
+@Service
+public class ClientImportService {
+    /** Must match {@code allocationSize} of {@link Client}'s {@code @SequenceGenerator}. */
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final int MAX_LENGTH = 255;
+    private static final int JDBC_BATCH_SIZE = 1000;
+    private static final String INSERT = "INSERT INTO clients " +
+            "(id, name, email, address, profit, active, profit_shards, created_at, updated_at, version, order_version) " +
+            "VALUES (?, ?, ?, ?, 0, ?, 0, ?, ?, 0, 0)";
+
+    private final ClientProperties clientProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final DataFieldMaxValueIncrementer idSequence;
+
+    public ClientImportService(ClientProperties clientProperties, ApplicationEventPublisher eventPublisher,
+                               ObjectMapper objectMapper, Validator validator, DataSource dataSource,
+                               PlatformTransactionManager transactionManager) {
+        this.clientProperties = clientProperties;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(1000);
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.idSequence = idSequence(dataSource);
+    }
+
+    /**
+     * Imports a CSV file whose header names the columns; {@code name} and {@code email} are required,
+     * {@code address} and {@code active} (default {@code true}) are optional. Fields may be quoted.
+     */
+    public ClientImportResult importCsv(InputStream body) throws IOException {
+        BufferedReader reader = reader(body);
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV body must start with a header line");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        Integer name = columns.get("name");
+        Integer email = columns.get("email");
+        Integer address = columns.get("address");
+        Integer active = columns.get("active");
+        if (name == null || email == null) {
+            throw new IllegalArgumentException("CSV header must contain name and email columns");
+        }
+
+        Session session = new Session();
+        long line = 1;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            List<String> fields;
+            try {
+                fields = parseCsvLine(text);
+            } catch (IllegalArgumentException ex) {
+                session.reject(line, null, ex.getMessage());
+                continue;
+            }
+            session.add(line, field(fields, name), field(fields, email), field(fields, address),
+                    parseActive(field(fields, active)));
+        }
+        return session.finish();
+    }
+
+    /**
+     * Imports one JSON object per line with {@code name}, {@code email}, {@code address} and
+     * {@code active} (default {@code true}).
+     */
+    public ClientImportResult importNdjson(InputStream body) throws IOException {
+        BufferedReader reader = reader(body);
+        Session session = new Session();
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(text);
+            } catch (JsonProcessingException ex) {
+                session.reject(line, null, "Malformed JSON");
+                continue;
+            }
+            if (!node.isObject()) {
+                session.reject(line, null, "Row must be a JSON object");
+                continue;
+            }
+            JsonNode active = node.get("active");
+            session.add(line, text(node, "name"), text(node, "email"), text(node, "address"),
+                    active == null || active.isNull() ? Boolean.TRUE : active.isBoolean() ? active.booleanValue() : null);
+        }
+        return session.finish();
+    }
+
+    /** State of one import: the known emails, the pending chunk and the running totals. */
+    private final class Session {
+        /** Emails already taken, mapped to the file line that took them, or 0 for rows in the table. */
+        private final Map<String, Long> emails = new HashMap<>();
+        private final List<Row> pending = new ArrayList<>();
+        private final List<ClientImportRejection> rejections = new ArrayList<>();
+        private final int chunkSize = Math.max(1, clientProperties.getBulkImport().getChunkSize());
+        private final int maxReported = clientProperties.getBulkImport().getMaxReportedRejections();
+        private long accepted;
+        private long rejected;
+        private long nextId;
+        private long lastId = -1;
+
+        Session() {
+            Long table = 0L;
+            transaction.executeWithoutResult(status -> jdbcTemplate.query("SELECT email FROM clients",
+                    (RowCallbackHandler) rs -> emails.put(rs.getString(1), table)));
+        }
+
+        void add(long line, String name, String email, String address, Boolean active) {
+            String reason = validate(name, email, address, active);
+            if (reason == null) {
+                Long takenAt = emails.putIfAbsent(email, line);
+                if (takenAt != null) {
+                    reason = takenAt == 0 ? "Email already exists" : "Duplicate of the email on line " + takenAt;
+                }
+            }
+            if (reason != null) {
+                reject(line, email, reason);
+                return;
+            }
+            pending.add(new Row(line, nextId(), name.trim(), email, address, active));
+            if (pending.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String email, String reason) {
+            rejected++;
+            if (rejections.size() < maxReported) {
+                rejections.add(new ClientImportRejection(line, email, reason));
+            }
+        }
+
+        ClientImportResult finish() {
+            flush();
+            return new ClientImportResult(accepted, rejected, rejections);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transaction.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(INSERT, pending, JDBC_BATCH_SIZE, (ps, row) -> bind(ps, row, now)));
+                accepted += pending.size();
+                pending.forEach(row -> publish(row, now));
+            } catch (DataAccessException chunkFailure) {
+                for (Row row : pending) {
+                    try {
+                        transaction.executeWithoutResult(status -> jdbcTemplate.update(INSERT, ps -> bind(ps, row, now)));
+                        accepted++;
+                        publish(row, now);
+                    } catch (DataIntegrityViolationException ex) {
+                        reject(row.line(), row.email(), "Email already exists");
+                    } catch (DataAccessException ex) {
+                        reject(row.line(), row.email(), "Rejected by the database: " + ex.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            pending.clear();
+        }
+
+        private long nextId() {
+            if (nextId > lastId) {
+                lastId = idSequence.nextLongValue();
+                nextId = Math.max(1, lastId - ID_BLOCK_SIZE + 1);
+            }
+            return nextId++;
+        }
+    }
+
+    private record Row(long line, long id, String name, String email, String address, boolean active) {
+    }
+
+    private String validate(String name, String email, String address, Boolean active) {
+        if (name == null || name.isBlank()) {
+            return "Name must be provided";
+        }
+        if (email == null || email.isBlank()) {
+            return "Email must be provided";
+        }
+        // The constraint of Client.email, so imported clients pass the same check as ones created one by one.
+        if (!validator.validateValue(Client.class, "email", email).isEmpty()) {
+            return "Invalid email format";
+        }
+        if (name.length() > MAX_LENGTH || email.length() > MAX_LENGTH || (address != null && address.length() > MAX_LENGTH)) {
+            return "Fields must be at most " + MAX_LENGTH + " characters long";
+        }
+        if (active == null) {
+            return "Active must be true or false";
+        }
+        return null;
+    }
+
+    private static void bind(PreparedStatement ps, Row row, LocalDateTime now) throws SQLException {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        ps.setLong(1, row.id());
+        ps.setString(2, row.name());
+        ps.setString(3, row.email());
+        ps.setString(4, row.address());
+        ps.setBoolean(5, row.active());
+        ps.setTimestamp(6, timestamp);
+        ps.setTimestamp(7, timestamp);
+    }
+
+    /**
+     * Published once the row's chunk has committed and outside any transaction, so the after-commit
+     * listeners run straight away instead of registering thousands of transaction synchronizations.
+     */
+    private void publish(Row row, LocalDateTime now) {
+        eventPublisher.publishEvent(new ClientChangedEvent(Client.builder()
+                .id(row.id())
+                .name(row.name())
+                .email(row.email())
+                .address(row.address())
+                .profit(Money.ZERO)
+                .active(row.active())
+                .createdAt(now)
+                .updatedAt(now)
+                .build()));
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static String field(List<String> fields, Integer index) {
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText().trim();
+    }
+
+    private static Boolean parseActive(String value) {
+        if (value == null) {
+            return Boolean.TRUE;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes" -> Boolean.TRUE;
+            case "false", "0", "no" -> Boolean.FALSE;
+            default -> null;
+        };
+    }
+
+    /** Splits one CSV line; fields may be wrapped in double quotes, with {@code ""} for a quote inside. */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static DataFieldMaxValueIncrementer idSequence(DataSource dataSource) {
+        String product;
+        try {
+            product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Cannot determine the database product", ex);
+        }
+        return product.toLowerCase(Locale.ROOT).contains("postgres")
+                ? new PostgresSequenceMaxValueIncrementer(dataSource, "clients_seq")
+                : new H2SequenceMaxValueIncrementer(dataSource, "clients_seq");
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.dataox.services;
+
+import com.example.dataox.config.OrderProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-JVM locks keyed by client id. Orders touching the same clients queue up here, in
+ * arrival order, instead of contending for the same rows inside the database transaction.
+ */
+@Component
+public class ClientLockStripes {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public ClientLockStripes(OrderProperties orderProperties) {
+        int size = Integer.highestOneBit(Math.max(1, orderProperties.getLockStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(true);
+        }
+    }
+
+    /**
+     * Runs the action while holding the stripes of both clients. Stripes are always taken in
+     * ascending index order, so two callers locking the same pair in opposite directions cannot deadlock.
+     */
+    public <T> T withPairLocked(Long firstClientId, Long secondClientId, Supplier<T> action) {
+        int first = stripeIndex(firstClientId);
+        int second = stripeIndex(secondClientId);
+        ReentrantLock lower = stripes[Math.min(first, second)];
+        ReentrantLock upper = stripes[Math.max(first, second)];
+
+        lower.lock();
+        try {
+            if (upper != lower) {
+                upper.lock();
+            }
+            try {
+                return action.get();
+            } finally {
+                if (upper != lower) {
+                    upper.unlock();
+                }
+            }
+        } finally {
+            lower.unlock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the stripes of every given client, taken in ascending index order
+     * like {@link #withPairLocked}, so batches and single orders queue behind each other safely.
+     */
+    public <T> T withAllLocked(Collection<Long> clientIds, Supplier<T> action) {
+        int[] indices = stripeIndices(clientIds);
+
+        int locked = 0;
+        try {
+            for (int index : indices) {
+                stripes[index].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indices[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Like {@link #withAllLocked}, but never waits: when a stripe is held by another caller, the stripes
+     * taken so far are released and the action is not run. Unlike waiting callers, this one does not
+     * queue in arrival order, so it is meant for callers that retry a little later.
+     *
+     * @return the action's result, or empty when a stripe was taken
+     */
+    public <T> Optional<T> tryWithAllLocked(Collection<Long> clientIds, Supplier<T> action) {
+        int[] indices = stripeIndices(clientIds);
+
+        int locked = 0;
+        try {
+            for (int index : indices) {
+                if (!stripes[index].tryLock()) {
+                    return Optional.empty();
+                }
+                locked++;
+            }
+            return Optional.of(action.get());
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                stripes[indices[i]].unlock();
+            }
+        }
+    }
+
+    private int[] stripeIndices(Collection<Long> clientIds) {
+        return clientIds.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    int stripeIndex(Long clientId) {
+        long h = clientId * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+}
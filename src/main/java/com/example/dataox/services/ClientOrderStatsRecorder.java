@@ -0,0 +1,140 @@
+package com.example.dataox.services;
+
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Adds created orders to the {@code client_order_stats} rollup inside the order's own transaction. Each
+ * row changes through one blind upsert that adds the deltas, so nothing is read first and the row lock
+ * lasts from the upsert to the commit, like the client row already locked by the same transaction.
+ * Rows are touched in client id order, matching the order in which client rows are locked.
+ */
+@Service
+public class ClientOrderStatsRecorder {
+    private static final String POSTGRES_UPSERT = """
+            INSERT INTO client_order_stats (client_id, order_date, slot, orders_bought, orders_sold, bought, sold)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (client_id, order_date, slot) DO UPDATE SET
+                orders_bought = client_order_stats.orders_bought + EXCLUDED.orders_bought,
+                orders_sold = client_order_stats.orders_sold + EXCLUDED.orders_sold,
+                bought = client_order_stats.bought + EXCLUDED.bought,
+                sold = client_order_stats.sold + EXCLUDED.sold
+            """;
+
+    private static final String H2_UPSERT = """
+            MERGE INTO client_order_stats t
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS INT), CAST(? AS BIGINT), CAST(? AS BIGINT),
+                           CAST(? AS NUMERIC(19, 2)), CAST(? AS NUMERIC(19, 2))))
+                AS s (client_id, order_date, slot, orders_bought, orders_sold, bought, sold)
+            ON t.client_id = s.client_id AND t.order_date = s.order_date AND t.slot = s.slot
+            WHEN MATCHED THEN UPDATE SET
+                orders_bought = t.orders_bought + s.orders_bought,
+                orders_sold = t.orders_sold + s.orders_sold,
+                bought = t.bought + s.bought,
+                sold = t.sold + s.sold
+            WHEN NOT MATCHED THEN INSERT (client_id, order_date, slot, orders_bought, orders_sold, bought, sold)
+                VALUES (s.client_id, s.order_date, s.slot, s.orders_bought, s.orders_sold, s.bought, s.sold)
+            """;
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparingLong(Key::clientId)
+            .thenComparing(Key::orderDate)
+            .thenComparingInt(Key::slot);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+
+    public ClientOrderStatsRecorder(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.postgres = isPostgres(dataSource);
+    }
+
+    /** Records one stored order; must run in the transaction that inserted it. */
+    public void record(Order order) {
+        record(List.of(order));
+    }
+
+    /** Records stored orders, one upsert per client, day and slot; must run in the transaction that inserted them. */
+    public void record(Collection<Order> orders) {
+        Map<Key, Delta> deltas = new TreeMap<>(KEY_ORDER);
+        for (Order order : orders) {
+            LocalDate day = (order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now()).toLocalDate();
+            deltas.computeIfAbsent(key(order.getSupplier(), day), k -> new Delta()).sold(order.getPrice());
+            deltas.computeIfAbsent(key(order.getConsumer(), day), k -> new Delta()).bought(order.getPrice());
+        }
+        if (postgres) {
+            List<Object[]> rows = new ArrayList<>(deltas.size());
+            deltas.forEach((key, delta) -> rows.add(row(key, delta)));
+            jdbcTemplate.batchUpdate(POSTGRES_UPSERT, rows);
+            return;
+        }
+        deltas.forEach((key, delta) -> {
+            Object[] row = row(key, delta);
+            try {
+                jdbcTemplate.update(H2_UPSERT, row);
+            } catch (DuplicateKeyException ex) {
+                // H2's MERGE lets two transactions both take the insert branch for a new row; the loser
+                // fails only this statement and now finds the row.
+                jdbcTemplate.update(H2_UPSERT, row);
+            }
+        });
+    }
+
+    private static Key key(Client client, LocalDate day) {
+        int slot = client.isHot() ? ThreadLocalRandom.current().nextInt(client.getProfitShards()) : 0;
+        return new Key(client.getId(), day, slot);
+    }
+
+    private static Object[] row(Key key, Delta delta) {
+        return new Object[]{key.clientId(), Date.valueOf(key.orderDate()), key.slot(),
+                delta.ordersBought, delta.ordersSold, Money.ofCents(delta.bought).toBigDecimal(), Money.ofCents(delta.sold).toBigDecimal()};
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            return JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName)
+                    .toLowerCase(Locale.ROOT).contains("postgres");
+        } catch (MetaDataAccessException ex) {
+            throw new IllegalStateException("Cannot determine the database product", ex);
+        }
+    }
+
+    private record Key(long clientId, LocalDate orderDate, int slot) {
+    }
+
+    private static final class Delta {
+        private long ordersBought;
+        private long ordersSold;
+        private long bought;
+        private long sold;
+
+        void bought(Money price) {
+            ordersBought++;
+            bought = Money.addExact(bought, price.cents());
+        }
+
+        void sold(Money price) {
+            ordersSold++;
+            sold = Money.addExact(sold, price.cents());
+        }
+    }
+}
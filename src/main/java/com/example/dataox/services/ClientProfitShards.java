@@ -0,0 +1,170 @@
+package com.example.dataox.services;
+
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.ClientProfitShard;
+import com.example.dataox.events.ClientChangedEvent;
+import com.example.dataox.exceptions.ProfitThresholdException;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientProfitShardRepository;
+import com.example.dataox.repo.ClientRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Escrow-sharded profit of hot clients. A hot client's headroom above the -1000 floor is split across
+ * {@code profitShards} rows; an order locks and draws on one random shard, so orders of the same client
+ * commit in parallel. When the chosen shard cannot cover a debit, all shards are locked in order and
+ * the remaining headroom is spread evenly again. No shard ever goes below zero, so the client's total
+ * never goes below the floor.
+ * <p>
+ * Every write path locks client rows before shards, and shards of several clients in client id order,
+ * so the two kinds of locks cannot deadlock.
+ */
+@Service
+@RequiredArgsConstructor
+public class ClientProfitShards {
+    static final Money PROFIT_FLOOR = Money.of(-1000);
+
+    private final ClientRepository clientRepository;
+    private final ClientProfitShardRepository shardRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Turns a regular client into a hot one, moving its current headroom into {@code shards} escrow rows.
+     * The client row is locked, so orders already in flight on the regular path finish first.
+     */
+    @Transactional
+    public Client promote(Long clientId, int shards) {
+        Client client = clientRepository.findByIdForUpdate(clientId)
+                .orElseThrow(() -> new EntityNotFoundException("Client not found with id: " + clientId));
+        if (client.isHot()) {
+            throw new IllegalStateException("Client is already hot: " + clientId);
+        }
+
+        long profit = client.getProfit() == null ? 0 : client.getProfit().cents();
+        List<ClientProfitShard> rows = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            rows.add(new ClientProfitShard(clientId, shard, Money.ZERO, 0));
+        }
+        spread(rows, Money.subtractExact(profit, PROFIT_FLOOR.cents()));
+        shardRepository.saveAll(rows);
+
+        client.setProfitShards(shards);
+        Client saved = clientRepository.saveAndFlush(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(saved));
+        return saved;
+    }
+
+    /**
+     * Adds {@code delta} to a hot client's profit inside the caller's transaction. Credits go to a random
+     * shard; debits are taken from a random shard, or from all shards after a rebalance when it runs dry.
+     *
+     * @throws ProfitThresholdException when the client's total headroom cannot cover the debit
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyDelta(Client client, long delta, String role) {
+        int shard = ThreadLocalRandom.current().nextInt(client.getProfitShards());
+        if (delta >= 0) {
+            shardRepository.deposit(client.getId(), shard, Money.ofCents(delta));
+            return;
+        }
+
+        long amount = Money.subtractExact(0, delta);
+        if (shardRepository.withdraw(client.getId(), shard, Money.ofCents(amount)) == 1) {
+            return;
+        }
+
+        List<ClientProfitShard> shards = lockAll(client.getId());
+        long headroom = headroom(shards);
+        if (headroom < amount) {
+            throw new ProfitThresholdException("Creating this order would make " + role.toLowerCase() + "'s total profit less than -1000");
+        }
+        spread(shards, headroom - amount);
+        shardRepository.saveAllAndFlush(shards);
+    }
+
+    /** Locks every shard of a hot client, in shard order, for a caller that rewrites its profit. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<ClientProfitShard> lockAll(Long clientId) {
+        return shardRepository.findAllByClientIdForUpdate(clientId);
+    }
+
+    /** Total of a hot client's shard versions, which grows with every change of its profit. */
+    public long versionOf(Client client) {
+        Long version = shardRepository.sumVersion(client.getId());
+        return version == null ? 0 : version;
+    }
+
+    /** Exact profit held by the given shards. */
+    public long profitOf(List<ClientProfitShard> shards) {
+        return Money.addExact(headroom(shards), PROFIT_FLOOR.cents());
+    }
+
+    /** Rewrites shards locked with {@link #lockAll} so that together they hold {@code profit}. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void setProfit(List<ClientProfitShard> shards, long profit) {
+        spread(shards, Money.subtractExact(profit, PROFIT_FLOOR.cents()));
+        shardRepository.saveAllAndFlush(shards);
+    }
+
+    /** Exact profit of a client: the {@code profit} column for a regular client, the shard total for a hot one. */
+    public Money effectiveProfit(Client client) {
+        if (!client.isHot()) {
+            return client.getProfit() != null ? client.getProfit() : Money.ZERO;
+        }
+        BigDecimal headroom = shardRepository.sumHeadroom(client.getId());
+        return (headroom == null ? Money.ZERO : Money.of(headroom)).plus(PROFIT_FLOOR);
+    }
+
+    /** The client itself, or for a hot client a copy carrying its exact profit. */
+    public Client withEffectiveProfit(Client client) {
+        return client.isHot() ? client.toBuilder().profit(effectiveProfit(client)).build() : client;
+    }
+
+    /**
+     * {@link #withEffectiveProfit} for a list, with one query for all hot clients in it. The clients
+     * themselves are never modified, as they may still be managed.
+     */
+    public List<Client> withEffectiveProfits(List<Client> clients) {
+        List<Long> hot = clients.stream().filter(Client::isHot).map(Client::getId).toList();
+        if (hot.isEmpty()) {
+            return clients;
+        }
+        Map<Long, Money> profits = new HashMap<>();
+        for (Object[] row : shardRepository.sumHeadroomByClientId(hot)) {
+            profits.put((Long) row[0], Money.of((BigDecimal) row[1]).plus(PROFIT_FLOOR));
+        }
+        return clients.stream()
+                .map(client -> client.isHot() ? client.toBuilder().profit(profits.get(client.getId())).build() : client)
+                .toList();
+    }
+
+    private static long headroom(List<ClientProfitShard> shards) {
+        long total = 0;
+        for (ClientProfitShard shard : shards) {
+            total = Money.addExact(total, shard.getHeadroom().cents());
+        }
+        return total;
+    }
+
+    /** Splits {@code headroom} cents evenly, giving the remainder to the first shard. */
+    private static void spread(List<ClientProfitShard> shards, long headroom) {
+        Money share = Money.ofCents(headroom / shards.size());
+        for (ClientProfitShard shard : shards) {
+            shard.setHeadroom(share);
+            shard.setVersion(shard.getVersion() + 1);
+        }
+        shards.get(0).setHeadroom(Money.ofCents(share.cents() + headroom % shards.size()));
+    }
+}
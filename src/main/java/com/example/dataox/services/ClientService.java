@@ -1,40 +1,108 @@
 package com.example.dataox.services;
 
+import com.example.dataox.config.ClientProperties;
+import com.example.dataox.dto.ClientCacheStats;
+import com.example.dataox.dto.ClientDailyStats;
+import com.example.dataox.dto.ClientOrderStatsSummary;
+import com.example.dataox.dto.ClientProfitPage;
 import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.dto.KeysetPage;
 import com.example.dataox.entities.Client;
+import com.example.dataox.events.ClientChangedEvent;
+import com.example.dataox.exceptions.EmailConflictException;
+import com.example.dataox.index.ClientProfitIndex;
+import com.example.dataox.index.ClientSearchIndex;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientOrderStatsRepository;
 import com.example.dataox.repo.ClientRepository;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class ClientService {
+    private static final int DEFAULT_STATS_DAYS = 30;
+    private static final int MAX_STATS_DAYS = 366;
+    private static final Money DEFAULT_MIN_PROFIT = Money.of(-1_000_000);
+    private static final Money DEFAULT_MAX_PROFIT = Money.of(1_000_000);
+
     private final ClientRepository clientRepository;
+    private final ClientCache clientCache;
+    private final EntityManager entityManager;
+    private final ClientSearchIndex clientSearchIndex;
+    private final ClientProfitIndex clientProfitIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ClientProfitShards clientProfitShards;
+    private final ClientLockStripes clientLockStripes;
+    private final ClientProperties clientProperties;
+    private final ClientOrderStatsRepository clientOrderStatsRepository;
 
+    @Transactional(readOnly = true)
     public List<Client> getAllClients() {
-        return clientRepository.findAll();
+        return clientProfitShards.withEffectiveProfits(clientRepository.findAll());
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<Client> getClientsPage(Long after, Integer limit) {
+        int pageLimit = KeysetPage.resolveLimit(limit);
+        List<Client> clients = clientRepository.findByIdGreaterThanOrderByIdAsc(after == null ? 0L : after, Limit.of(pageLimit));
+        return KeysetPage.of(clientProfitShards.withEffectiveProfits(clients), pageLimit, Client::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamClients(Consumer<Client> consumer) {
+        EntityStreaming.forEach(entityManager, clientRepository.streamAll(),
+                client -> consumer.accept(clientProfitShards.withEffectiveProfit(client)));
     }
 
     public Client getClientById(Long id) {
-        return clientRepository.findById(id)
+        return clientCache.findById(id)
+                .map(clientProfitShards::withEffectiveProfit)
                 .orElseThrow(() -> new RuntimeException("Client not found with id: " + id));
     }
 
+    /**
+     * Weak validator of a client and its profit, or {@code null} for an unknown client. Taken from the
+     * cached row version, which is replaced only after a change commits; a hot client's profit lives in
+     * its shards, whose version total is appended. JSON, CBOR and Smile bodies of the same version share
+     * it, which a strong validator must not do, hence weak.
+     */
+    public String getClientETag(Long id) {
+        return clientCache.findById(id)
+                .map(client -> client.isHot()
+                        ? "W/\"" + client.getVersion() + "." + clientProfitShards.versionOf(client) + "\""
+                        : "W/\"" + client.getVersion() + "\"")
+                .orElse(null);
+    }
+
     public Client createClient(ClientRequest clientRequest) {
         Client client = Client.builder()
                 .name(clientRequest.getName())
                 .email(clientRequest.getEmail())
                 .address(clientRequest.getAddress())
                 .active(true)
-                .profit(BigDecimal.ZERO)
+                .profit(Money.ZERO)
                 .build();
-        return clientRepository.save(client);
+        Client saved = save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(saved));
+        return saved;
     }
 
     public Client updateClient(Long id, ClientRequest clientDetails) {
@@ -45,7 +113,9 @@ public class ClientService {
         client.setAddress(clientDetails.getAddress());
         client.setActive(clientDetails.isActive());
         client.setUpdatedAt(LocalDateTime.now());
-        return clientRepository.save(client);
+        Client saved = save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(saved));
+        return saved;
     }
 
     @Transactional
@@ -54,9 +124,10 @@ public class ClientService {
                 .orElseThrow(() -> new RuntimeException("Client not found with id: " + id));
         client.setActive(false);
         client.setDeactivatedAt(LocalDateTime.now());
-        clientRepository.save(client);
+        eventPublisher.publishEvent(ClientChangedEvent.of(clientRepository.saveAndFlush(client)));
     }
 
+    @Transactional(readOnly = true)
     public List<Client> searchClients(String name, String email, String address) {
         if (name != null && name.length() < 3) {
             throw new IllegalArgumentException("Name must be at least 3 characters long");
@@ -68,19 +139,164 @@ public class ClientService {
             throw new IllegalArgumentException("Address must be at least 3 characters long");
         }
 
-        return clientRepository.searchClients(name, email, address);
+        if (!clientSearchIndex.canSearch(name, email, address)) {
+            return clientProfitShards.withEffectiveProfits(clientRepository.searchClients(name, email, address));
+        }
+        List<Long> ids = clientSearchIndex.search(name, email, address);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Client> clients = clientRepository.findAllById(ids);
+        clients.sort(Comparator.comparing(Client::getId));
+        return clientProfitShards.withEffectiveProfits(clients);
+    }
+
+    @Transactional(readOnly = true)
+    public List<Client> findClientsByProfitRange(BigDecimal min, BigDecimal max) {
+        Money minProfit = profitBound(min, RoundingMode.CEILING, DEFAULT_MIN_PROFIT);
+        Money maxProfit = profitBound(max, RoundingMode.FLOOR, DEFAULT_MAX_PROFIT);
+
+        if (clientProfitIndex.isReady()) {
+            return clientProfitIndex.range(minProfit, maxProfit, null, null, Integer.MAX_VALUE);
+        }
+        return clientProfitShards.withEffectiveProfits(clientRepository.findByProfitRange(minProfit, maxProfit));
+    }
+
+    /**
+     * One page of {@link #findClientsByProfitRange} ordered by profit and id. {@code after} is the
+     * {@code nextCursor} of the previous page.
+     */
+    @Transactional(readOnly = true)
+    public ClientProfitPage findClientsByProfitRangePage(BigDecimal min, BigDecimal max, String after, Integer limit) {
+        Money minProfit = profitBound(min, RoundingMode.CEILING, DEFAULT_MIN_PROFIT);
+        Money maxProfit = profitBound(max, RoundingMode.FLOOR, DEFAULT_MAX_PROFIT);
+        int pageLimit = KeysetPage.resolveLimit(limit);
+
+        Money afterProfit = null;
+        Long afterId = null;
+        if (after != null) {
+            int separator = after.lastIndexOf(':');
+            try {
+                afterProfit = Money.of(new BigDecimal(after.substring(0, Math.max(separator, 0))));
+                afterId = Long.valueOf(after.substring(separator + 1));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Invalid cursor: " + after);
+            }
+        }
+
+        List<Client> clients;
+        if (clientProfitIndex.isReady()) {
+            clients = clientProfitIndex.range(minProfit, maxProfit, afterProfit, afterId, pageLimit);
+        } else if (afterProfit == null) {
+            clients = clientProfitShards.withEffectiveProfits(
+                    clientRepository.findByProfitRangeAfter(minProfit, maxProfit, minProfit, Long.MIN_VALUE, Limit.of(pageLimit)));
+        } else {
+            clients = clientProfitShards.withEffectiveProfits(
+                    clientRepository.findByProfitRangeAfter(minProfit, maxProfit, afterProfit, afterId, Limit.of(pageLimit)));
+        }
+        return ClientProfitPage.of(clients, pageLimit);
     }
 
-    public List<Client> findClientsByProfitRange(BigDecimal minProfit, BigDecimal maxProfit) {
-        if (minProfit == null) minProfit = BigDecimal.valueOf(-1_000_000);
-        if (maxProfit == null) maxProfit = BigDecimal.valueOf(1_000_000);
+    /**
+     * Leaderboard of the {@code n} clients with the highest ({@code desc}) or lowest ({@code asc}) profit.
+     */
+    @Transactional(readOnly = true)
+    public List<Client> getTopClients(Integer n, String order) {
+        int count = n == null ? 10 : n;
+        if (count < 1 || count > KeysetPage.MAX_LIMIT) {
+            throw new IllegalArgumentException("n must be between 1 and " + KeysetPage.MAX_LIMIT);
+        }
+        boolean descending = Sort.Direction.fromString(order == null ? "desc" : order).isDescending();
 
-        return clientRepository.findByProfitRange(minProfit, maxProfit);
+        if (clientProfitIndex.isReady()) {
+            return clientProfitIndex.top(count, descending);
+        }
+        return clientProfitShards.withEffectiveProfits(descending
+                ? clientRepository.findAllByOrderByProfitDescIdDesc(Limit.of(count))
+                : clientRepository.findAllByOrderByProfitAscIdAsc(Limit.of(count)));
     }
 
-    public BigDecimal calculateClientProfit(Long clientId) {
-        Client client = clientRepository.findById(clientId)
+    public Money calculateClientProfit(Long clientId) {
+        Client client = clientCache.findById(clientId)
                 .orElseThrow(() -> new EntityNotFoundException("Client not found with id: " + clientId));
-        return client.getProfit() != null ? client.getProfit() : BigDecimal.ZERO;
+        return clientProfitShards.effectiveProfit(client);
+    }
+
+    /**
+     * Marks a client as hot: its profit moves into {@code shards} escrow rows so that concurrent orders
+     * of this client no longer queue on its row. Runs under the client's lock stripe, so it waits for
+     * orders already being applied on the regular path.
+     */
+    public Client promoteToHot(Long clientId, Integer shards) {
+        ClientProperties.Hot settings = clientProperties.getHot();
+        int count = shards == null ? settings.getDefaultShards() : shards;
+        if (count < 1 || count > settings.getMaxShards()) {
+            throw new IllegalArgumentException("shards must be between 1 and " + settings.getMaxShards());
+        }
+        Client client = clientLockStripes.withAllLocked(List.of(clientId), () -> clientProfitShards.promote(clientId, count));
+        return clientProfitShards.withEffectiveProfit(client);
+    }
+
+    /**
+     * All-time turnover of a client, summed from the {@code client_order_stats} rollup without touching
+     * the orders table.
+     */
+    @Transactional(readOnly = true)
+    public ClientOrderStatsSummary getOrderStats(Long clientId) {
+        requireClient(clientId);
+        Object[] sums = clientOrderStatsRepository.sumByClientId(clientId).get(0);
+        return new ClientOrderStatsSummary(clientId,
+                sums[0] == null ? 0 : ((Number) sums[0]).longValue(),
+                sums[1] == null ? 0 : ((Number) sums[1]).longValue(),
+                sums[2] == null ? BigDecimal.ZERO : (BigDecimal) sums[2],
+                sums[3] == null ? BigDecimal.ZERO : (BigDecimal) sums[3],
+                (LocalDate) sums[4],
+                (LocalDate) sums[5]);
+    }
+
+    /**
+     * Daily turnover buckets of a client between {@code from} and {@code to}, both inclusive. Defaults to
+     * the last 30 days; days without orders are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<ClientDailyStats> getDailyOrderStats(Long clientId, LocalDate from, LocalDate to) {
+        LocalDate last = to == null ? LocalDate.now() : to;
+        LocalDate first = from == null ? last.minusDays(DEFAULT_STATS_DAYS - 1) : from;
+        if (first.isAfter(last)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(first, last) >= MAX_STATS_DAYS) {
+            throw new IllegalArgumentException("Range must not exceed " + MAX_STATS_DAYS + " days");
+        }
+        requireClient(clientId);
+        return clientOrderStatsRepository.findDaily(clientId, first, last);
+    }
+
+    /** Rounds a range bound inwards to whole cents, so a finer bound selects the same clients as before. */
+    /** Saves a created or updated client; email is the only unique column besides the id. */
+    private Client save(Client client) {
+        try {
+            return clientRepository.save(client);
+        } catch (DataIntegrityViolationException ex) {
+            if (ex.getCause() instanceof ConstraintViolationException violation
+                    && violation.getKind() == ConstraintViolationException.ConstraintKind.UNIQUE) {
+                throw new EmailConflictException("Email is already used by another client: " + client.getEmail(), ex);
+            }
+            throw ex;
+        }
+    }
+
+    private static Money profitBound(BigDecimal bound, RoundingMode rounding, Money defaultValue) {
+        return bound == null ? defaultValue : Money.of(bound.setScale(Money.SCALE, rounding));
+    }
+
+    private void requireClient(Long clientId) {
+        if (!clientCache.existsById(clientId)) {
+            throw new EntityNotFoundException("Client not found with id: " + clientId);
+        }
+    }
+
+    public ClientCacheStats getCacheStats() {
+        return clientCache.stats();
     }
 }
@@ -0,0 +1,31 @@
+package com.example.dataox.services;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Walks a streamed query result row by row. The persistence context is cleared periodically so
+ * memory stays constant no matter how many rows the cursor returns.
+ */
+final class EntityStreaming {
+    static final int CLEAR_INTERVAL = 500;
+
+    private EntityStreaming() {
+    }
+
+    static <T> void forEach(EntityManager entityManager, Stream<T> rows, Consumer<T> action) {
+        try (rows) {
+            Iterator<T> iterator = rows.iterator();
+            int count = 0;
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                if (++count % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+}
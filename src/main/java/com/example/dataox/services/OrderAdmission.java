@@ -0,0 +1,227 @@
+package com.example.dataox.services;
+
+import com.example.dataox.config.OrderProperties;
+import com.example.dataox.exceptions.TooManyOrdersException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for order creation. An order holds a {@link Permit} from acceptance until its
+ * transaction ends, and is turned away with {@link TooManyOrdersException} when the global, per-client
+ * or per-pair number of orders in flight is at its limit. Turning orders away at the door keeps bursts
+ * from taking every request thread, so reads stay responsive.
+ * <p>
+ * Order transactions additionally queue for one of {@code max-concurrent-transactions} slots, which
+ * keeps part of the connection pool free for reads.
+ */
+@Component
+public class OrderAdmission {
+    public enum Scope {
+        GLOBAL,
+        CLIENT,
+        PAIR
+    }
+
+    private static final Permit NO_PERMIT = new Permit(null, null, null);
+
+    private final OrderProperties.Admission settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Long, Integer> inFlightByClient = new ConcurrentHashMap<>();
+    private final Map<Pair, Integer> inFlightByPair = new ConcurrentHashMap<>();
+    private final Semaphore transactionSlots;
+    private final Map<Scope, Counter> rejections = new EnumMap<>(Scope.class);
+
+    /** Moving average of how long a permit is held, used to suggest a retry delay. */
+    private final AtomicLong averageHoldNanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1));
+
+    public OrderAdmission(OrderProperties orderProperties, MeterRegistry meterRegistry) {
+        this.settings = orderProperties.getAdmission();
+        this.transactionSlots = new Semaphore(Math.max(1, settings.getMaxConcurrentTransactions()), true);
+
+        Gauge.builder("orders.admission.in_flight", inFlight, AtomicInteger::get)
+                .description("Orders accepted and not yet finished")
+                .register(meterRegistry);
+        Gauge.builder("orders.admission.average_hold", this, OrderAdmission::averageHoldSeconds)
+                .description("Moving average of how long an admitted order stays in flight")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        for (Scope scope : Scope.values()) {
+            String tag = scope.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("orders.admission.limit", settings, s -> limit(s, scope))
+                    .description("Largest number of orders in flight per scope")
+                    .tag("scope", tag)
+                    .register(meterRegistry);
+            rejections.put(scope, Counter.builder("orders.admission.rejected")
+                    .description("Orders turned away with 429 because a limit was reached")
+                    .tag("scope", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Admits one order between the two clients, or throws {@link TooManyOrdersException} without
+     * waiting. The returned permit must be closed once the order is finished.
+     */
+    public Permit admit(Long supplierId, Long consumerId) {
+        if (!settings.isEnabled()) {
+            return NO_PERMIT;
+        }
+        acquireGlobal();
+        Long lower = Math.min(supplierId, consumerId);
+        Long upper = Math.max(supplierId, consumerId);
+        boolean lowerHeld = false;
+        boolean upperHeld = false;
+        try {
+            acquire(inFlightByClient, lower, settings.getMaxInFlightPerClient(), Scope.CLIENT);
+            lowerHeld = true;
+            if (!upper.equals(lower)) {
+                acquire(inFlightByClient, upper, settings.getMaxInFlightPerClient(), Scope.CLIENT);
+                upperHeld = true;
+            }
+            acquire(inFlightByPair, new Pair(lower, upper), settings.getMaxInFlightPerPair(), Scope.PAIR);
+        } catch (TooManyOrdersException ex) {
+            if (upperHeld) {
+                release(inFlightByClient, upper);
+            }
+            if (lowerHeld) {
+                release(inFlightByClient, lower);
+            }
+            inFlight.decrementAndGet();
+            throw ex;
+        }
+        return new Permit(this, lower, upper);
+    }
+
+    /** Admits a batch of orders under the global limit only, as one order. */
+    public Permit admitBatch() {
+        if (!settings.isEnabled()) {
+            return NO_PERMIT;
+        }
+        acquireGlobal();
+        return new Permit(this, null, null);
+    }
+
+    /** Runs an order transaction once a transaction slot is free. */
+    public <T> T withTransactionSlot(Supplier<T> transaction) {
+        if (!settings.isEnabled()) {
+            return transaction.get();
+        }
+        try {
+            transactionSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Order processing interrupted", e);
+        }
+        try {
+            return transaction.get();
+        } finally {
+            transactionSlots.release();
+        }
+    }
+
+    private void acquireGlobal() {
+        int limit = settings.getMaxInFlight();
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                throw reject(Scope.GLOBAL, limit, current);
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+    }
+
+    private <K> void acquire(Map<K, Integer> counts, K key, int limit, Scope scope) {
+        boolean[] admitted = new boolean[1];
+        counts.compute(key, (k, count) -> {
+            int depth = count == null ? 0 : count;
+            if (depth >= limit) {
+                return count;
+            }
+            admitted[0] = true;
+            return depth + 1;
+        });
+        if (!admitted[0]) {
+            // The caller already holds a global slot, which does not count towards the backlog ahead of it.
+            throw reject(scope, limit, inFlight.get() - 1);
+        }
+    }
+
+    private static <K> void release(Map<K, Integer> counts, K key) {
+        counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Suggests waiting until the {@code backlog} of orders in flight has drained, at least one second. They
+     * finish about {@code max-concurrent-transactions} at a time, each after the average hold.
+     */
+    private TooManyOrdersException reject(Scope scope, int limit, int backlog) {
+        rejections.get(scope).increment();
+        double holdSeconds = averageHoldSeconds();
+        int concurrency = Math.max(1, settings.getMaxConcurrentTransactions());
+        long retryAfter = Math.max(1, (long) Math.ceil(holdSeconds * Math.max(1, backlog) / concurrency));
+        return new TooManyOrdersException("Too many orders in flight (" + scope.name().toLowerCase(Locale.ROOT)
+                + " limit " + limit + "), retry later", retryAfter);
+    }
+
+    private void finish(Long lower, Long upper, long heldNanos) {
+        if (lower != null) {
+            release(inFlightByPair, new Pair(lower, upper));
+            release(inFlightByClient, lower);
+            if (!upper.equals(lower)) {
+                release(inFlightByClient, upper);
+            }
+        }
+        inFlight.decrementAndGet();
+        averageHoldNanos.updateAndGet(average -> average + (heldNanos - average) / 8);
+    }
+
+    private double averageHoldSeconds() {
+        return averageHoldNanos.get() / 1e9;
+    }
+
+    private static double limit(OrderProperties.Admission settings, Scope scope) {
+        return switch (scope) {
+            case GLOBAL -> settings.getMaxInFlight();
+            case CLIENT -> settings.getMaxInFlightPerClient();
+            case PAIR -> settings.getMaxInFlightPerPair();
+        };
+    }
+
+    private record Pair(long lower, long upper) {
+    }
+
+    /** An admitted order's share of the limits; closing it more than once has no effect. */
+    public static final class Permit implements AutoCloseable {
+        private final OrderAdmission admission;
+        private final Long lower;
+        private final Long upper;
+        private final long admittedAt = System.nanoTime();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(OrderAdmission admission, Long lower, Long upper) {
+            this.admission = admission;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        @Override
+        public void close() {
+            if (admission != null && closed.compareAndSet(false, true)) {
+                admission.finish(lower, upper, System.nanoTime() - admittedAt);
+            }
+        }
+    }
+}
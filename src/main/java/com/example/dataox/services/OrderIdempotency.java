@@ -0,0 +1,98 @@
+package com.example.dataox.services;
+
+import com.example.dataox.config.OrderProperties;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.dto.OrderResponseView;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Outcomes of order requests carrying an {@code Idempotency-Key}, kept in a bounded cache that expires
+ * entries after {@code orders.idempotency.retention}. The first request with a key runs; a retry while
+ * it is still running attaches to its future, and a retry after it finished gets the stored outcome
+ * without paying the processing delay again.
+ * <p>
+ * Rejections by business rules are stored like successes, because a retry would be rejected the same
+ * way. Any other failure forgets the key so the next retry runs again.
+ */
+@Component
+public class OrderIdempotency {
+    private final Cache<String, Entry> entries;
+    private final Counter executed;
+    private final Counter attached;
+    private final Counter replayed;
+
+    public OrderIdempotency(OrderProperties orderProperties, MeterRegistry meterRegistry) {
+        OrderProperties.Idempotency settings = orderProperties.getIdempotency();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(settings.getMaximumKeys())
+                .expireAfterWrite(settings.getRetention())
+                .build();
+        this.executed = counter(meterRegistry, "executed");
+        this.attached = counter(meterRegistry, "attached");
+        this.replayed = counter(meterRegistry, "replayed");
+    }
+
+    /**
+     * Runs {@code action} once per key and returns its outcome to every request with that key.
+     *
+     * @param view shape of the response, part of the request: a stored response must not be replayed
+     *             in a shape the retry did not ask for
+     * @throws IllegalArgumentException when the key was already used for a different order or view
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> execute(String key, OrderCreateRequest request, OrderResponseView view, Supplier<T> action) {
+        if (key.isBlank() || key.length() > 255) {
+            throw new IllegalArgumentException("Idempotency-Key must be between 1 and 255 characters long");
+        }
+        Entry entry = new Entry(fingerprint(request, view), new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!existing.fingerprint().equals(entry.fingerprint())) {
+                throw new IllegalArgumentException("Idempotency-Key " + key + " was already used for a different order or view");
+            }
+            (existing.result().isDone() ? replayed : attached).increment();
+            return (CompletableFuture<T>) existing.result();
+        }
+
+        executed.increment();
+        try {
+            entry.result().complete(action.get());
+        } catch (RuntimeException ex) {
+            if (!isFinal(ex)) {
+                entries.asMap().remove(key, entry);
+            }
+            entry.result().completeExceptionally(ex);
+        }
+        return (CompletableFuture<T>) entry.result();
+    }
+
+    private static boolean isFinal(RuntimeException ex) {
+        return ex instanceof IllegalArgumentException
+                || ex instanceof IllegalStateException
+                || ex instanceof EntityNotFoundException;
+    }
+
+    private static String fingerprint(OrderCreateRequest request, OrderResponseView view) {
+        return view.name() + '\u0000' + request.getName() + '\u0000' + request.getSupplierId() + '\u0000'
+                + request.getConsumerId() + '\u0000'
+                + (request.getPrice() == null ? null : request.getPrice().stripTrailingZeros().toPlainString());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("orders.idempotency")
+                .description("Order requests with an Idempotency-Key by how they were served")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.dataox.services;
+
+import com.example.dataox.exceptions.DuplicateOrderException;
+import com.example.dataox.exceptions.InactiveClientException;
+import com.example.dataox.exceptions.ProfitThresholdException;
+import com.example.dataox.exceptions.TooManyOrdersException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.core.Ordered;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Latency of each phase of order creation ({@code orders.phase} timer histograms) and how order
+ * attempts end ({@code orders.outcome} counters). Served in Prometheus format at
+ * {@code /actuator/prometheus}.
+ */
+@Component
+public class OrderMetrics {
+    public enum Phase {
+        /** Snapshot checks that reject doomed orders before the processing delay. */
+        PRECHECK,
+        /** Simulated processing delay before the order is written. */
+        DELAY,
+        /** Waiting for the in-process lock stripes of the involved clients and a free transaction slot. */
+        STRIPE_WAIT,
+        /** {@code SELECT ... FOR UPDATE} of the involved client rows. */
+        ROW_LOCK,
+        /** Guarded profit {@code UPDATE}s of the conditional-update strategy, lock wait included. */
+        CONDITIONAL_UPDATE,
+        /** Active and profit threshold checks. */
+        CHECK,
+        /** Order insert and flush. */
+        INSERT,
+        /** Flush of remaining changes and the database commit. */
+        COMMIT
+    }
+
+    public enum Outcome {
+        CREATED,
+        INVALID,
+        CLIENT_NOT_FOUND,
+        INACTIVE_CLIENT,
+        THRESHOLD_REJECTED,
+        DUPLICATE_KEY,
+        SERIALIZATION_FAILURE,
+        THROTTLED,
+        ERROR
+    }
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+
+    public OrderMetrics(MeterRegistry meterRegistry) {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("orders.phase")
+                    .description("Time spent in one phase of order creation")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("orders.outcome")
+                    .description("Order creation attempts by how they ended")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry));
+        }
+    }
+
+    /** Records the time elapsed since {@code startNanos}, taken from {@link System#nanoTime()}. */
+    public void recordSince(Phase phase, long startNanos) {
+        phaseTimers.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public <T> T time(Phase phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            recordSince(phase, start);
+        }
+    }
+
+    public void time(Phase phase, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            recordSince(phase, start);
+        }
+    }
+
+    /**
+     * Times the commit of the current transaction, if there is one. The measurement runs from just before
+     * the commit until it completes and excludes after-commit listeners.
+     */
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long start;
+
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                start = System.nanoTime();
+            }
+
+            @Override
+            public void afterCommit() {
+                recordSince(Phase.COMMIT, start);
+            }
+        });
+    }
+
+    public void recordOutcome(Outcome outcome) {
+        outcomeCounters.get(outcome).increment();
+    }
+
+    public void recordOutcome(Outcome outcome, int count) {
+        outcomeCounters.get(outcome).increment(count);
+    }
+
+    /**
+     * Records the given outcome counts once the current transaction commits, or right away when there
+     * is no transaction; a rolled-back transaction records nothing.
+     */
+    public void recordOutcomesAfterCommit(Map<Outcome, Integer> counts) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counts.forEach(this::recordOutcome);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counts.forEach(OrderMetrics.this::recordOutcome);
+            }
+        });
+    }
+
+    public static Outcome classify(Throwable failure) {
+        if (failure instanceof DuplicateOrderException || failure instanceof DataIntegrityViolationException) {
+            return Outcome.DUPLICATE_KEY;
+        }
+        if (failure instanceof ProfitThresholdException) {
+            return Outcome.THRESHOLD_REJECTED;
+        }
+        if (failure instanceof InactiveClientException) {
+            return Outcome.INACTIVE_CLIENT;
+        }
+        if (failure instanceof EntityNotFoundException) {
+            return Outcome.CLIENT_NOT_FOUND;
+        }
+        if (failure instanceof TooManyOrdersException) {
+            return Outcome.THROTTLED;
+        }
+        if (failure instanceof ConcurrencyFailureException) {
+            return Outcome.SERIALIZATION_FAILURE;
+        }
+        if (failure instanceof IllegalArgumentException || failure instanceof NullPointerException) {
+            return Outcome.INVALID;
+        }
+        return Outcome.ERROR;
+    }
+}
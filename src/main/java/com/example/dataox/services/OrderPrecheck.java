@@ -0,0 +1,92 @@
+package com.example.dataox.services;
+
+import com.example.dataox.config.OrderProperties;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.exceptions.DuplicateOrderException;
+import com.example.dataox.exceptions.InactiveClientException;
+import com.example.dataox.exceptions.ProfitThresholdException;
+import com.example.dataox.index.OrderKeyFilter;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rejects orders that would fail anyway before they pay the processing delay. Clients are read from
+ * the client cache and business keys from {@link OrderKeyFilter}, so the check takes no locks; only a
+ * possible duplicate key costs one indexed lookup. The snapshot may be slightly behind, so the
+ * transactional checks still decide every order that passes.
+ * <p>
+ * Cached clients are replaced only after a change commits, so a snapshot can still show a consumer's
+ * balance before a credit or a client before it was reactivated. An order the snapshot rejects is
+ * therefore checked again against the stored clients, and rejected only if they agree; the lag costs a
+ * lookup on the rejection path but never turns away an order the transaction would accept.
+ * <p>
+ * The profit check uses the consumer's balance at admission, as if the order were applied right away.
+ * Hot clients are not profit-checked here, since their exact balance is spread over shards.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderPrecheck {
+    private final OrderProperties orderProperties;
+    private final ClientCache clientCache;
+    private final OrderKeyFilter orderKeyFilter;
+    private final OrderRepository orderRepository;
+    private final ClientRepository clientRepository;
+    private final OrderMetrics orderMetrics;
+
+    /**
+     * Throws the same exception the order transaction would, if the order is certain to be rejected.
+     */
+    public void check(OrderCreateRequest request) {
+        if (!orderProperties.getPrecheck().isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            try {
+                checkClients(snapshot(request.getSupplierId(), "Supplier"), snapshot(request.getConsumerId(), "Consumer"), request);
+            } catch (InactiveClientException | ProfitThresholdException ex) {
+                checkClients(current(request.getSupplierId(), "Supplier"), current(request.getConsumerId(), "Consumer"), request);
+            }
+            if (orderKeyFilter.mightContain(request.getName(), request.getSupplierId(), request.getConsumerId())
+                    && orderRepository.existsByBusinessKey(request.getName(), request.getSupplierId(), request.getConsumerId())) {
+                throw new DuplicateOrderException(OrderTransactionalService.DUPLICATE_KEY_MESSAGE, null);
+            }
+        } finally {
+            orderMetrics.recordSince(OrderMetrics.Phase.PRECHECK, start);
+        }
+    }
+
+    /** Records the business key of a stored order. */
+    public void remember(OrderCreateRequest request) {
+        orderKeyFilter.add(request.getName(), request.getSupplierId(), request.getConsumerId());
+    }
+
+    private static void checkClients(Client supplier, Client consumer, OrderCreateRequest request) {
+        if (!supplier.isActive()) {
+            throw new InactiveClientException("Supplier is inactive");
+        }
+        if (!consumer.isActive()) {
+            throw new InactiveClientException("Consumer is inactive");
+        }
+        if (!consumer.isHot() && consumer.getProfit() != null
+                && Money.subtractExact(consumer.getProfit().cents(), Money.toCents(request.getPrice())) < ClientProfitShards.PROFIT_FLOOR.cents()) {
+            throw new ProfitThresholdException("Creating this order would make consumer's total profit less than -1000");
+        }
+    }
+
+    private Client snapshot(Long clientId, String role) {
+        return clientCache.findById(clientId)
+                .orElseThrow(() -> new EntityNotFoundException(role + " not found with id: " + clientId));
+    }
+
+    /** The stored client, read past the cache to confirm a rejection. */
+    private Client current(Long clientId, String role) {
+        return clientRepository.findById(clientId)
+                .orElseThrow(() -> new EntityNotFoundException(role + " not found with id: " + clientId));
+    }
+}
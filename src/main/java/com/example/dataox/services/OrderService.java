@@ -1,53 +1,324 @@
 package com.example.dataox.services;
 
+import com.example.dataox.config.DataSourceRouting;
+import com.example.dataox.config.OrderProperties;
+import com.example.dataox.dto.ClientProfitReportRow;
+import com.example.dataox.dto.CompactOrder;
+import com.example.dataox.dto.KeysetPage;
+import com.example.dataox.dto.OrderBatchItemResult;
+import com.example.dataox.dto.OrderBatchItemStatus;
+import com.example.dataox.dto.OrderBatchResult;
 import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.dto.OrderExportFilter;
+import com.example.dataox.dto.OrderListView;
+import com.example.dataox.dto.OrderResponseView;
+import com.example.dataox.dto.OrderTicket;
+import com.example.dataox.dto.OrderView;
+import com.example.dataox.entities.Client;
 import com.example.dataox.entities.Order;
+import com.example.dataox.exceptions.GlobalExceptionHandler;
+import com.example.dataox.exceptions.TooManyOrdersException;
+import com.example.dataox.money.Money;
 import com.example.dataox.repo.ClientRepository;
-import com.example.dataox.repo.OrderRepository;
+import com.example.dataox.repo.OrderQueryRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
-    private final OrderRepository orderRepository;
-    private final ClientRepository clientRepository;
+    /** How long an asynchronous order waits before trying its busy lock stripes again. */
+    private static final long STRIPE_RETRY_MILLIS = 5;
+
+    private final OrderQueryRepository orderQueryRepository;
+    private final ClientCache clientCache;
     private final OrderTransactionalService orderTransactionalService;
+    private final OrderTicketRegistry orderTicketRegistry;
+    private final ClientLockStripes clientLockStripes;
+    private final OrderProperties orderProperties;
+    private final ScheduledExecutorService orderProcessingScheduler;
+    private final OrderMetrics orderMetrics;
+    private final OrderPrecheck orderPrecheck;
+    private final OrderAdmission orderAdmission;
+    private final ClientRepository clientRepository;
+    private final ClientProfitShards clientProfitShards;
+
+    @Transactional(readOnly = true)
+    public List<OrderView> getAllOrders() {
+        return orderQueryRepository.findAll();
+    }
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+    @Transactional(readOnly = true)
+    public KeysetPage<OrderView> getOrdersPage(Long after, Integer limit) {
+        int pageLimit = KeysetPage.resolveLimit(limit);
+        List<OrderView> orders = orderQueryRepository.findPage(after == null ? 0L : after, pageLimit);
+        return KeysetPage.of(orders, pageLimit, OrderView::getId);
     }
 
-    public Order getOrderById(Long id) {
-        return orderRepository.findById(id)
+    @Transactional(readOnly = true)
+    public void streamOrders(Consumer<OrderView> consumer) {
+        orderQueryRepository.streamAll(consumer);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderView getOrderById(Long id) {
+        return orderQueryRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
     }
 
     public Order createOrder(OrderCreateRequest orderRequest) {
         validateRequest(orderRequest);
+        precheck(orderRequest);
+        try (OrderAdmission.Permit permit = admit(orderRequest)) {
+            LocalDateTime startTime = LocalDateTime.now();
+
+            long delayMillis = nextProcessingDelayMillis();
+
+            long delayStart = System.nanoTime();
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Order processing interrupted", e);
+            }
+            orderMetrics.recordSince(OrderMetrics.Phase.DELAY, delayStart);
+
+            return persistOrder(startTime, orderRequest, System.nanoTime(), true);
+        }
+    }
+
+    /**
+     * Creates a batch of orders with one processing delay and one transaction. Invalid items are rejected
+     * individually; the rest are checked against the same business rules as single orders.
+     */
+    public OrderBatchResult createOrders(List<OrderCreateRequest> orderRequests) {
+        if (orderRequests == null || orderRequests.isEmpty()) {
+            throw new IllegalArgumentException("Order batch must contain at least one order");
+        }
+        int maxSize = orderProperties.getBatch().getMaxSize();
+        if (orderRequests.size() > maxSize) {
+            throw new IllegalArgumentException("Order batch must not contain more than " + maxSize + " orders");
+        }
+
+        List<OrderBatchItemResult> results = new ArrayList<>(orderRequests.size());
+        Map<Integer, OrderCreateRequest> valid = new LinkedHashMap<>();
+        Set<Long> clientIds = new HashSet<>();
+        for (int i = 0; i < orderRequests.size(); i++) {
+            OrderCreateRequest orderRequest = orderRequests.get(i);
+            try {
+                validateRequest(orderRequest);
+                valid.put(i, orderRequest);
+                clientIds.add(orderRequest.getSupplierId());
+                clientIds.add(orderRequest.getConsumerId());
+            } catch (IllegalArgumentException | NullPointerException ex) {
+                results.add(OrderBatchItemResult.rejected(i, ex.getMessage()));
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            OrderAdmission.Permit permit;
+            try {
+                permit = orderAdmission.admitBatch();
+            } catch (TooManyOrdersException ex) {
+                orderMetrics.recordOutcome(OrderMetrics.Outcome.THROTTLED, valid.size());
+                throw ex;
+            }
+            try (permit) {
+                LocalDateTime startTime = LocalDateTime.now();
+                long delayStart = System.nanoTime();
+                try {
+                    TimeUnit.MILLISECONDS.sleep(nextProcessingDelayMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Order processing interrupted", e);
+                }
+                orderMetrics.recordSince(OrderMetrics.Phase.DELAY, delayStart);
+
+                long waitStart = System.nanoTime();
+                results.addAll(clientLockStripes.withAllLocked(clientIds, () -> orderAdmission.withTransactionSlot(() -> {
+                    orderMetrics.recordSince(OrderMetrics.Phase.STRIPE_WAIT, waitStart);
+                    return orderTransactionalService.saveOrderBatch(startTime, valid);
+                })));
+            } catch (RuntimeException ex) {
+                orderMetrics.recordOutcome(OrderMetrics.classify(ex), valid.size());
+                throw ex;
+            }
+            results.sort(Comparator.comparingInt(OrderBatchItemResult::getIndex));
+            results.stream()
+                    .filter(result -> result.getStatus() == OrderBatchItemStatus.CREATED)
+                    .forEach(result -> orderPrecheck.remember(orderRequests.get(result.getIndex())));
+        }
+
+        int created = (int) results.stream()
+                .filter(result -> result.getStatus() == OrderBatchItemStatus.CREATED)
+                .count();
+        return new OrderBatchResult(created, results.size() - created, results);
+    }
+
+    /**
+     * Accepts the order and returns a ticket right away. The processing delay is served by the
+     * scheduler instead of a sleeping request thread, and the transaction runs once it elapses.
+     */
+    public OrderTicket submitOrder(OrderCreateRequest orderRequest) {
+        validateRequest(orderRequest);
+        precheck(orderRequest);
+        OrderAdmission.Permit permit = admit(orderRequest);
         LocalDateTime startTime = LocalDateTime.now();
+        long delayStart = System.nanoTime();
+        OrderTicket ticket = orderTicketRegistry.open();
+
+        try {
+            orderProcessingScheduler.schedule(() -> {
+                        orderMetrics.recordSince(OrderMetrics.Phase.DELAY, delayStart);
+                        processTicket(ticket, startTime, orderRequest, permit, System.nanoTime());
+                    },
+                    nextProcessingDelayMillis(), TimeUnit.MILLISECONDS);
+        } catch (RuntimeException ex) {
+            permit.close();
+            throw ex;
+        }
+        return ticket;
+    }
+
+    public OrderTicket getOrderTicket(UUID ticketId) {
+        return orderTicketRegistry.get(ticketId);
+    }
+
+    /**
+     * Runs a ticket's order on a scheduler worker. Workers never wait for a lock stripe: when one is held,
+     * the attempt is scheduled again a moment later, so orders queueing on a busy pair do not park the
+     * few workers every other order needs. The admission permit is held until the order is done.
+     */
+    private void processTicket(OrderTicket ticket, LocalDateTime startTime, OrderCreateRequest orderRequest,
+                               OrderAdmission.Permit permit, long waitStart) {
+        boolean retrying = false;
+        try {
+            Order order = persistOrder(startTime, orderRequest, waitStart, false);
+            if (order == null) {
+                orderProcessingScheduler.schedule(
+                        () -> processTicket(ticket, startTime, orderRequest, permit, waitStart),
+                        STRIPE_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+                retrying = true;
+            } else {
+                orderTicketRegistry.markCreated(ticket.getId(), order.getId());
+            }
+        } catch (RuntimeException ex) {
+            orderTicketRegistry.markRejected(ticket.getId(), GlobalExceptionHandler.messageOf(ex));
+        } finally {
+            if (!retrying) {
+                permit.close();
+            }
+        }
+    }
+
+    /**
+     * Orders touching a hot client skip that client's lock stripe and always take the guarded-update
+     * path, whose shard writes let them commit in parallel. Hotness is read from the cache; a client
+     * promoted meanwhile is still handled correctly by both transactional paths.
+     *
+     * @param waitStart when the order started waiting for its stripes, for the stripe wait metric
+     * @param waitForStripes whether to wait for busy stripes; without it, returns {@code null} when one is held
+     */
+    private Order persistOrder(LocalDateTime startTime, OrderCreateRequest orderRequest, long waitStart, boolean waitForStripes) {
+        Long supplierId = orderRequest.getSupplierId();
+        Long consumerId = orderRequest.getConsumerId();
+        List<Long> stripedIds = new ArrayList<>(2);
+        if (!isHot(supplierId)) {
+            stripedIds.add(supplierId);
+        }
+        if (!isHot(consumerId)) {
+            stripedIds.add(consumerId);
+        }
+        boolean conditional = stripedIds.size() < 2
+                || orderProperties.getWriteStrategy() == OrderProperties.WriteStrategy.CONDITIONAL_UPDATE;
 
-        int delaySeconds = ThreadLocalRandom.current().nextInt(1, 11);
+        Supplier<Order> transaction = () -> orderAdmission.withTransactionSlot(() -> {
+            orderMetrics.recordSince(OrderMetrics.Phase.STRIPE_WAIT, waitStart);
+            return conditional
+                    ? orderTransactionalService.saveOrderConditional(startTime, orderRequest, supplierId, consumerId)
+                    : orderTransactionalService.saveOrderTransactional(startTime, orderRequest, supplierId, consumerId);
+        });
+        try {
+            Order order;
+            if (waitForStripes) {
+                order = clientLockStripes.withAllLocked(stripedIds, transaction);
+            } else {
+                Optional<Order> locked = clientLockStripes.tryWithAllLocked(stripedIds, transaction);
+                if (locked.isEmpty()) {
+                    return null;
+                }
+                order = locked.get();
+            }
+            orderMetrics.recordOutcome(OrderMetrics.Outcome.CREATED);
+            orderPrecheck.remember(orderRequest);
+            return order;
+        } catch (RuntimeException ex) {
+            orderMetrics.recordOutcome(OrderMetrics.classify(ex));
+            throw ex;
+        }
+    }
+
+    private boolean isHot(Long clientId) {
+        return clientCache.findById(clientId).map(Client::isHot).orElse(false);
+    }
 
+    private long nextProcessingDelayMillis() {
+        OrderProperties.Delay delay = orderProperties.getDelay();
+        long min = delay.getMin().toMillis();
+        long max = Math.max(min, delay.getMax().toMillis());
+        return Math.round(ThreadLocalRandom.current().nextLong(min, max + 1) * delay.getScale());
+    }
+
+    private OrderAdmission.Permit admit(OrderCreateRequest req) {
         try {
-            TimeUnit.SECONDS.sleep(delaySeconds);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Order processing interrupted", e);
+            return orderAdmission.admit(req.getSupplierId(), req.getConsumerId());
+        } catch (TooManyOrdersException ex) {
+            orderMetrics.recordOutcome(OrderMetrics.Outcome.THROTTLED);
+            throw ex;
         }
+    }
 
-        return orderTransactionalService.saveOrderTransactional(startTime, orderRequest, orderRequest.getSupplierId(), orderRequest.getConsumerId());
+    private void precheck(OrderCreateRequest req) {
+        try {
+            orderPrecheck.check(req);
+        } catch (RuntimeException ex) {
+            orderMetrics.recordOutcome(OrderMetrics.classify(ex));
+            throw ex;
+        }
     }
 
     private void validateRequest(OrderCreateRequest req) {
+        try {
+            checkRequest(req);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            orderMetrics.recordOutcome(OrderMetrics.Outcome.INVALID);
+            throw ex;
+        }
+    }
+
+    private static void checkRequest(OrderCreateRequest req) {
         Objects.requireNonNull(req, "Order request must not be null");
         if (req.getName() == null || req.getName().trim().isEmpty()) {
             throw new IllegalArgumentException("Order name must be provided");
@@ -61,13 +332,105 @@ public class OrderService {
         if (req.getPrice() == null || req.getPrice().compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Price must be greater than zero");
         }
+        // Throws for more than two decimal places or an amount that does not fit in a long of cents.
+        Money.toCents(req.getPrice());
     }
 
+    /**
+     * Weak validator of a client's order list, or {@code null} for an unknown client. Taken from the client's
+     * order counter, which moves only when an order commits; a hot client's orders bump its shard versions
+     * instead, whose total is appended. Counterparty renames do not change it, hence weak.
+     * <p>
+     * The counter comes from the cache, which loads from the primary. A list that may be read from a lagging
+     * replica could then be older than its validator, so on replica reads it is read from the same database.
+     */
+    @Transactional(readOnly = true)
+    public String getClientOrdersETag(Long clientId) {
+        Optional<Client> row = DataSourceRouting.isReplicaAllowed()
+                ? clientRepository.findById(clientId)
+                : clientCache.findById(clientId);
+        return row
+                .map(client -> client.isHot()
+                        ? "W/\"" + client.getOrderVersion() + "." + clientProfitShards.versionOf(client) + "\""
+                        : "W/\"" + client.getOrderVersion() + "\"")
+                .orElse(null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<OrderView> getClientOrders(Long clientId) {
+        requireClientExists(clientId);
+        return orderQueryRepository.findByClientId(clientId);
+    }
+
+    @Transactional(readOnly = true)
+    public KeysetPage<OrderView> getClientOrdersPage(Long clientId, Long after, Integer limit) {
+        int pageLimit = KeysetPage.resolveLimit(limit);
+        requireClientExists(clientId);
+        List<OrderView> orders = orderQueryRepository.findByClientIdPage(clientId, after == null ? 0L : after, pageLimit);
+        return KeysetPage.of(orders, pageLimit, OrderView::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public void streamClientOrders(Long clientId, Consumer<OrderView> consumer) {
+        orderQueryRepository.streamByClientId(clientId, consumer);
+    }
+
+    /**
+     * Rejects an export filter before its response starts streaming, when errors can still become a 4xx.
+     */
+    public void validateExportFilter(OrderExportFilter filter) {
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().isBefore(filter.getTo())) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        if (filter.getMinPrice() != null && filter.getMaxPrice() != null
+                && filter.getMinPrice().compareTo(filter.getMaxPrice()) > 0) {
+            throw new IllegalArgumentException("'minPrice' must not be greater than 'maxPrice'");
+        }
+        if (filter.getClientId() != null) {
+            requireClientExists(filter.getClientId());
+        }
+    }
+
+    // Plain reads under READ COMMITTED take no row locks, so a long export never blocks order transactions.
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public void exportOrders(OrderExportFilter filter, Consumer<OrderView> consumer) {
+        orderQueryRepository.streamExport(filter, consumer);
+    }
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public void exportProfitReport(OrderExportFilter filter, Consumer<ClientProfitReportRow> consumer) {
+        orderQueryRepository.streamProfitReport(filter, consumer);
+    }
+
+    /**
+     * Compact form of a list of orders. The client side-table, when requested, is read with one query and
+     * reports hot clients' exact profit like the client endpoints.
+     */
+    @Transactional(readOnly = true)
+    public OrderListView toListView(List<OrderView> orders, Long nextCursor, OrderResponseView view) {
+        List<CompactOrder> items = new ArrayList<>(orders.size());
+        for (OrderView order : orders) {
+            items.add(CompactOrder.of(order));
+        }
+        if (view != OrderResponseView.COMPACT_WITH_CLIENTS) {
+            return new OrderListView(items, null, nextCursor);
+        }
+
+        Set<Long> clientIds = new HashSet<>();
+        for (OrderView order : orders) {
+            clientIds.add(order.getSupplierId());
+            clientIds.add(order.getConsumerId());
+        }
+        Map<Long, Client> clients = new TreeMap<>();
+        for (Client client : clientProfitShards.withEffectiveProfits(clientRepository.findAllById(clientIds))) {
+            clients.put(client.getId(), client);
+        }
+        return new OrderListView(items, clients, nextCursor);
+    }
 
-    public List<Order> getClientOrders(Long clientId) {
-        if (!clientRepository.existsById(clientId)) {
+    public void requireClientExists(Long clientId) {
+        if (!clientCache.existsById(clientId)) {
             throw new EntityNotFoundException("Client not found with id: " + clientId);
         }
-        return orderRepository.findByClientId(clientId);
     }
 }
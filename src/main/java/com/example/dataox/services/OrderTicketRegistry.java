@@ -0,0 +1,75 @@
+package com.example.dataox.services;
+
+import com.example.dataox.config.OrderProperties;
+import com.example.dataox.dto.OrderTicket;
+import com.example.dataox.dto.OrderTicketStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory store of tickets handed out by the asynchronous order flow. Tickets are replaced,
+ * never mutated, so readers always see a consistent snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderTicketRegistry {
+    private final OrderProperties orderProperties;
+    private final ScheduledExecutorService orderProcessingScheduler;
+
+    private final Map<UUID, OrderTicket> tickets = new ConcurrentHashMap<>();
+
+    // At least once a minute, and often enough that a short retention is honoured within a second or so.
+    @PostConstruct
+    void schedulePurge() {
+        long interval = Math.max(1, Math.min(60, orderProperties.getAsync().getTicketRetention().toSeconds() / 2));
+        orderProcessingScheduler.scheduleWithFixedDelay(this::purgeExpired, interval, interval, TimeUnit.SECONDS);
+    }
+
+    public OrderTicket open() {
+        OrderTicket ticket = OrderTicket.builder()
+                .id(UUID.randomUUID())
+                .status(OrderTicketStatus.PENDING)
+                .submittedAt(LocalDateTime.now())
+                .build();
+        tickets.put(ticket.getId(), ticket);
+        return ticket;
+    }
+
+    public void markCreated(UUID ticketId, Long orderId) {
+        tickets.computeIfPresent(ticketId, (id, ticket) -> ticket.toBuilder()
+                .status(OrderTicketStatus.CREATED)
+                .orderId(orderId)
+                .completedAt(LocalDateTime.now())
+                .build());
+    }
+
+    public void markRejected(UUID ticketId, String reason) {
+        tickets.computeIfPresent(ticketId, (id, ticket) -> ticket.toBuilder()
+                .status(OrderTicketStatus.REJECTED)
+                .reason(reason)
+                .completedAt(LocalDateTime.now())
+                .build());
+    }
+
+    public OrderTicket get(UUID ticketId) {
+        OrderTicket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new EntityNotFoundException("Order ticket not found with id: " + ticketId);
+        }
+        return ticket;
+    }
+
+    void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(orderProperties.getAsync().getTicketRetention());
+        tickets.values().removeIf(ticket -> ticket.getCompletedAt() != null && ticket.getCompletedAt().isBefore(cutoff));
+    }
+}
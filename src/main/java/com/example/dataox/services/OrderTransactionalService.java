@@ -1,76 +1,375 @@
 package com.example.dataox.services;
 
+import com.example.dataox.dto.OrderBatchItemResult;
 import com.example.dataox.dto.OrderCreateRequest;
 import com.example.dataox.entities.Client;
+import com.example.dataox.entities.ClientProfitShard;
 import com.example.dataox.entities.Order;
+import com.example.dataox.events.ClientChangedEvent;
+import com.example.dataox.events.OrderCreatedEvent;
+import com.example.dataox.exceptions.DuplicateOrderException;
+import com.example.dataox.exceptions.InactiveClientException;
+import com.example.dataox.exceptions.ProfitThresholdException;
+import com.example.dataox.money.Money;
 import com.example.dataox.repo.ClientRepository;
 import com.example.dataox.repo.OrderRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderTransactionalService {
+    private static final Money PROFIT_THRESHOLD = Money.of(-1000);
+    static final String DUPLICATE_KEY_MESSAGE = "Order cannot be created: constraint violation (possible duplicate business key)";
+
     private final ClientRepository clientRepository;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderMetrics orderMetrics;
+    private final ClientProfitShards clientProfitShards;
+    private final ClientOrderStatsRecorder clientOrderStatsRecorder;
 
-    @Transactional(isolation = Isolation.SERIALIZABLE)
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Order saveOrderTransactional(LocalDateTime startTime, OrderCreateRequest orderRequest, Long supplierId, Long consumerId) {
-        Client supplier = clientRepository.findByIdForUpdate(supplierId)
-                .orElseThrow(() -> new EntityNotFoundException("Supplier not found with id: " + supplierId));
-        Client consumer = clientRepository.findByIdForUpdate(consumerId)
-                .orElseThrow(() -> new EntityNotFoundException("Consumer not found with id: " + consumerId));
+        orderMetrics.timeCommit();
+
+        // Row locks are always taken in ascending id order, so A->B and B->A orders cannot deadlock.
+        long lockStart = System.nanoTime();
+        Client supplier;
+        Client consumer;
+        if (supplierId <= consumerId) {
+            supplier = lockClient(supplierId, "Supplier");
+            consumer = lockClient(consumerId, "Consumer");
+        } else {
+            consumer = lockClient(consumerId, "Consumer");
+            supplier = lockClient(supplierId, "Supplier");
+        }
+        orderMetrics.recordSince(OrderMetrics.Phase.ROW_LOCK, lockStart);
 
+        long checkStart = System.nanoTime();
         if (!supplier.isActive()) {
-            throw new IllegalStateException("Supplier is inactive");
+            throw new InactiveClientException("Supplier is inactive");
         }
         if (!consumer.isActive()) {
-            throw new IllegalStateException("Consumer is inactive");
+            throw new InactiveClientException("Consumer is inactive");
         }
 
-        BigDecimal price = orderRequest.getPrice();
-        BigDecimal threshold = BigDecimal.valueOf(-1000L);
+        Money price = Money.of(orderRequest.getPrice());
+        long threshold = PROFIT_THRESHOLD.cents();
+
+        long supplierAfter = Money.addExact(currentProfit(supplier), price.cents());
+        if (!supplier.isHot() && supplierAfter < threshold) {
+            throw new ProfitThresholdException("Creating this order would make supplier's total profit less than -1000");
+        }
 
-        BigDecimal supplierCurrent = supplier.getProfit() == null ? BigDecimal.ZERO : supplier.getProfit();
-        BigDecimal supplierAfter = supplierCurrent.add(price);
-        if (supplierAfter.compareTo(threshold) < 0) {
-            throw new IllegalStateException("Creating this order would make supplier's total profit less than -1000");
+        long consumerAfter = Money.subtractExact(currentProfit(consumer), price.cents());
+        if (!consumer.isHot() && consumerAfter < threshold) {
+            throw new ProfitThresholdException("Creating this order would make consumer's total profit less than -1000");
         }
 
-        BigDecimal consumerCurrent = consumer.getProfit() == null ? BigDecimal.ZERO : consumer.getProfit();
-        BigDecimal consumerAfter = consumerCurrent.subtract(price);
-        if (consumerAfter.compareTo(threshold) < 0) {
-            throw new IllegalStateException("Creating this order would make consumer's total profit less than -1000");
+        // A client promoted after the caller routed this order keeps its balance in shards, checked there.
+        if (supplierId <= consumerId) {
+            applyShardDelta(supplier, price.cents(), "Supplier");
+            applyShardDelta(consumer, -price.cents(), "Consumer");
+        } else {
+            applyShardDelta(consumer, -price.cents(), "Consumer");
+            applyShardDelta(supplier, price.cents(), "Supplier");
         }
+        orderMetrics.recordSince(OrderMetrics.Phase.CHECK, checkStart);
 
         Order order = Order.builder()
                 .name(orderRequest.getName())
                 .supplier(supplier)
                 .consumer(consumer)
-                .price(orderRequest.getPrice())
+                .price(price)
                 .startTime(startTime)
                 .endTime(LocalDateTime.now())
                 .build();
 
         try {
-            Order saved = orderRepository.save(order);
+            Order saved = orderMetrics.time(OrderMetrics.Phase.INSERT, () -> orderRepository.saveAndFlush(order));
+            clientOrderStatsRecorder.record(saved);
+
+            if (!supplier.isHot()) {
+                supplier.setProfit(Money.ofCents(supplierAfter));
+                supplier.setOrderVersion(supplier.getOrderVersion() + 1);
+            }
+            if (!consumer.isHot()) {
+                consumer.setProfit(Money.ofCents(consumerAfter));
+                consumer.setOrderVersion(consumer.getOrderVersion() + 1);
+            }
+
+            // Flushed before publishing, so the events carry the incremented versions.
+            eventPublisher.publishEvent(ClientChangedEvent.of(clientRepository.saveAndFlush(supplier)));
+            eventPublisher.publishEvent(ClientChangedEvent.of(clientRepository.saveAndFlush(consumer)));
+            eventPublisher.publishEvent(OrderCreatedEvent.of(saved));
+
+            return saved;
+        } catch (DataIntegrityViolationException ex) {
+            throw new DuplicateOrderException(DUPLICATE_KEY_MESSAGE, ex);
+        }
+    }
+
+    /**
+     * Lock-free alternative to {@link #saveOrderTransactional}: each profit change is a single guarded
+     * UPDATE whose row count decides accept or reject, and the order insert shares the same short
+     * READ COMMITTED transaction. The UPDATE itself takes the row lock, so no SELECT FOR UPDATE is needed.
+     * Hot clients are debited or credited on one of their escrow shards instead of their row.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Order saveOrderConditional(LocalDateTime startTime, OrderCreateRequest orderRequest, Long supplierId, Long consumerId) {
+        orderMetrics.timeCommit();
+        Money price = Money.of(orderRequest.getPrice());
+
+        // Same ascending id order as the locking strategy, so opposite-direction orders cannot deadlock.
+        long updateStart = System.nanoTime();
+        Client hotSupplier;
+        Client hotConsumer;
+        if (supplierId <= consumerId) {
+            hotSupplier = applyProfitDelta(supplierId, price, "Supplier");
+            hotConsumer = applyProfitDelta(consumerId, price.negate(), "Consumer");
+        } else {
+            hotConsumer = applyProfitDelta(consumerId, price.negate(), "Consumer");
+            hotSupplier = applyProfitDelta(supplierId, price, "Supplier");
+        }
+        // Shards are touched only after every client row, and in client id order, like in the other paths.
+        if (supplierId <= consumerId) {
+            applyShardDelta(hotSupplier, price.cents(), "Supplier");
+            applyShardDelta(hotConsumer, -price.cents(), "Consumer");
+        } else {
+            applyShardDelta(hotConsumer, -price.cents(), "Consumer");
+            applyShardDelta(hotSupplier, price.cents(), "Supplier");
+        }
+        orderMetrics.recordSince(OrderMetrics.Phase.CONDITIONAL_UPDATE, updateStart);
 
-            supplier.setProfit(supplierAfter);
-            consumer.setProfit(consumerAfter);
+        Map<Long, Client> clients = clientRepository.findAllById(List.of(supplierId, consumerId)).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
 
-            clientRepository.save(supplier);
-            clientRepository.save(consumer);
+        Order order = Order.builder()
+                .name(orderRequest.getName())
+                .supplier(clients.get(supplierId))
+                .consumer(clients.get(consumerId))
+                .price(price)
+                .startTime(startTime)
+                .endTime(LocalDateTime.now())
+                .build();
 
+        try {
+            Order saved = orderMetrics.time(OrderMetrics.Phase.INSERT, () -> orderRepository.saveAndFlush(order));
+            clientOrderStatsRecorder.record(saved);
+            clients.values().forEach(client -> eventPublisher.publishEvent(ClientChangedEvent.of(client)));
+            eventPublisher.publishEvent(OrderCreatedEvent.of(saved));
             return saved;
         } catch (DataIntegrityViolationException ex) {
-            throw new IllegalStateException("Order cannot be created: constraint violation (possible duplicate business key)", ex);
+            throw new DuplicateOrderException(DUPLICATE_KEY_MESSAGE, ex);
+        }
+    }
+
+    /**
+     * Applies a batch of already validated orders with the same rules as {@link #saveOrderTransactional}.
+     * All involved clients are locked with one ordered SELECT FOR UPDATE, existing business keys are read
+     * with one query, and every order is then checked against running per-client balances in submission
+     * order. Accepted orders are inserted with JDBC batching and each client row is updated once.
+     *
+     * @param requests validated requests keyed by their position in the submitted batch
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<OrderBatchItemResult> saveOrderBatch(LocalDateTime startTime, Map<Integer, OrderCreateRequest> requests) {
+        Set<Long> clientIds = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (OrderCreateRequest request : requests.values()) {
+            clientIds.add(request.getSupplierId());
+            clientIds.add(request.getConsumerId());
+            names.add(request.getName());
+        }
+
+        orderMetrics.timeCommit();
+        long lockStart = System.nanoTime();
+        Map<Long, Client> clients = clientRepository.findAllByIdForUpdate(clientIds).stream()
+                .collect(Collectors.toMap(Client::getId, Function.identity()));
+
+        // Hot clients' shards are locked after all rows, in client id order; their running balance starts
+        // from the exact shard total and is written back to the shards at the end.
+        Map<Long, List<ClientProfitShard>> shards = new HashMap<>();
+        Map<Long, Long> startingProfits = new HashMap<>();
+        for (Client client : clients.values().stream().sorted(Comparator.comparing(Client::getId)).toList()) {
+            if (client.isHot()) {
+                List<ClientProfitShard> locked = clientProfitShards.lockAll(client.getId());
+                shards.put(client.getId(), locked);
+                startingProfits.put(client.getId(), clientProfitShards.profitOf(locked));
+            } else {
+                startingProfits.put(client.getId(), currentProfit(client));
+            }
+        }
+        orderMetrics.recordSince(OrderMetrics.Phase.ROW_LOCK, lockStart);
+
+        long checkStart = System.nanoTime();
+        Set<String> businessKeys = new HashSet<>();
+        for (Object[] key : orderRepository.findBusinessKeys(names, clientIds)) {
+            businessKeys.add(businessKey((String) key[0], (Long) key[1], (Long) key[2]));
         }
+
+        Map<OrderMetrics.Outcome, Integer> outcomes = new EnumMap<>(OrderMetrics.Outcome.class);
+        Map<Long, Long> balances = new HashMap<>();
+        List<OrderBatchItemResult> results = new ArrayList<>(requests.size());
+        Map<Integer, Order> accepted = new LinkedHashMap<>();
+        LocalDateTime endTime = LocalDateTime.now();
+
+        for (Map.Entry<Integer, OrderCreateRequest> entry : requests.entrySet()) {
+            int index = entry.getKey();
+            OrderCreateRequest request = entry.getValue();
+            Client supplier = clients.get(request.getSupplierId());
+            Client consumer = clients.get(request.getConsumerId());
+            String key = businessKey(request.getName(), request.getSupplierId(), request.getConsumerId());
+
+            String rejection = null;
+            OrderMetrics.Outcome outcome = null;
+            if (supplier == null) {
+                rejection = "Supplier not found with id: " + request.getSupplierId();
+                outcome = OrderMetrics.Outcome.CLIENT_NOT_FOUND;
+            } else if (consumer == null) {
+                rejection = "Consumer not found with id: " + request.getConsumerId();
+                outcome = OrderMetrics.Outcome.CLIENT_NOT_FOUND;
+            } else if (!supplier.isActive()) {
+                rejection = "Supplier is inactive";
+                outcome = OrderMetrics.Outcome.INACTIVE_CLIENT;
+            } else if (!consumer.isActive()) {
+                rejection = "Consumer is inactive";
+                outcome = OrderMetrics.Outcome.INACTIVE_CLIENT;
+            }
+            if (rejection != null) {
+                results.add(OrderBatchItemResult.rejected(index, rejection));
+                outcomes.merge(outcome, 1, Integer::sum);
+                continue;
+            }
+
+            Money price = Money.of(request.getPrice());
+            long supplierAfter = Money.addExact(balances.getOrDefault(supplier.getId(), startingProfits.get(supplier.getId())), price.cents());
+            long consumerAfter = Money.subtractExact(balances.getOrDefault(consumer.getId(), startingProfits.get(consumer.getId())), price.cents());
+            if (supplierAfter < PROFIT_THRESHOLD.cents()) {
+                rejection = "Creating this order would make supplier's total profit less than -1000";
+                outcome = OrderMetrics.Outcome.THRESHOLD_REJECTED;
+            } else if (consumerAfter < PROFIT_THRESHOLD.cents()) {
+                rejection = "Creating this order would make consumer's total profit less than -1000";
+                outcome = OrderMetrics.Outcome.THRESHOLD_REJECTED;
+            } else if (!businessKeys.add(key)) {
+                rejection = DUPLICATE_KEY_MESSAGE;
+                outcome = OrderMetrics.Outcome.DUPLICATE_KEY;
+            }
+            if (rejection != null) {
+                results.add(OrderBatchItemResult.rejected(index, rejection));
+                outcomes.merge(outcome, 1, Integer::sum);
+                continue;
+            }
+
+            balances.put(supplier.getId(), supplierAfter);
+            balances.put(consumer.getId(), consumerAfter);
+            accepted.put(index, Order.builder()
+                    .name(request.getName())
+                    .supplier(supplier)
+                    .consumer(consumer)
+                    .price(price)
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .build());
+            results.add(null);
+        }
+
+        orderMetrics.recordSince(OrderMetrics.Phase.CHECK, checkStart);
+
+        long insertStart = System.nanoTime();
+        try {
+            orderRepository.saveAll(accepted.values());
+            balances.forEach((clientId, profit) -> {
+                Client client = clients.get(clientId);
+                if (client.isHot()) {
+                    clientProfitShards.setProfit(shards.get(clientId), profit);
+                } else {
+                    client.setProfit(Money.ofCents(profit));
+                    client.setOrderVersion(client.getOrderVersion() + 1);
+                }
+            });
+            orderRepository.flush();
+            // Published after the flush, so the events carry the incremented versions.
+            balances.keySet().forEach(clientId -> eventPublisher.publishEvent(ClientChangedEvent.of(clients.get(clientId))));
+            accepted.values().forEach(order -> eventPublisher.publishEvent(OrderCreatedEvent.of(order)));
+            clientOrderStatsRecorder.record(accepted.values());
+        } catch (DataIntegrityViolationException ex) {
+            throw new DuplicateOrderException("Order batch cannot be created: constraint violation (possible duplicate business key)", ex);
+        }
+        orderMetrics.recordSince(OrderMetrics.Phase.INSERT, insertStart);
+        if (!accepted.isEmpty()) {
+            outcomes.put(OrderMetrics.Outcome.CREATED, accepted.size());
+        }
+        orderMetrics.recordOutcomesAfterCommit(outcomes);
+
+        int position = 0;
+        for (Map.Entry<Integer, OrderCreateRequest> entry : requests.entrySet()) {
+            Order order = accepted.get(entry.getKey());
+            if (order != null) {
+                results.set(position, OrderBatchItemResult.created(entry.getKey(), order.getId()));
+            }
+            position++;
+        }
+        return results;
+    }
+
+    private static long currentProfit(Client client) {
+        return client.getProfit() == null ? 0 : client.getProfit().cents();
+    }
+
+    private static String businessKey(String name, Long supplierId, Long consumerId) {
+        return name + '\u0000' + supplierId + '\u0000' + consumerId;
+    }
+
+    /**
+     * Applies the delta with the guarded row UPDATE.
+     *
+     * @return {@code null} once applied, or the client when it is hot and the delta must go to its shards
+     */
+    private Client applyProfitDelta(Long clientId, Money delta, String role) {
+        if (clientRepository.applyProfitDelta(clientId, delta, PROFIT_THRESHOLD.toBigDecimal(), LocalDateTime.now()) == 1) {
+            return null;
+        }
+
+        // The guarded update matched nothing; read the row only to report the same error as the locking strategy.
+        Client client = clientRepository.findById(clientId)
+                .orElseThrow(() -> new EntityNotFoundException(role + " not found with id: " + clientId));
+        if (!client.isActive()) {
+            throw new InactiveClientException(role + " is inactive");
+        }
+        if (client.isHot()) {
+            return client;
+        }
+        throw new ProfitThresholdException("Creating this order would make " + role.toLowerCase() + "'s total profit less than -1000");
+    }
+
+    private void applyShardDelta(Client client, long delta, String role) {
+        if (client != null && client.isHot()) {
+            clientProfitShards.applyDelta(client, delta, role);
+        }
+    }
+
+    private Client lockClient(Long clientId, String role) {
+        return clientRepository.findByIdForUpdate(clientId)
+                .orElseThrow(() -> new EntityNotFoundException(role + " not found with id: " + clientId));
     }
 }
@@ -0,0 +1,55 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Replaces the identity columns of {@code clients} and {@code orders} with sequences that hand out
+ * ids in blocks, so Hibernate can batch inserts. Written in Java because each sequence has to start
+ * after the ids already present, which plain SQL cannot express portably across PostgreSQL and H2.
+ */
+public class V3__create_pooled_id_sequences extends BaseJavaMigration {
+    /** Must match {@code allocationSize} of the entities' {@code @SequenceGenerator}. */
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("postgres");
+
+        try (Statement statement = connection.createStatement()) {
+            createSequence(statement, "clients", postgres);
+            createSequence(statement, "orders", postgres);
+        }
+    }
+
+    private void createSequence(Statement statement, String table, boolean postgres) throws SQLException {
+        long maxId;
+        try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            rs.next();
+            maxId = rs.getLong(1);
+        }
+
+        // Hibernate's pooled optimizer treats every sequence value as the upper end of a block of
+        // ALLOCATION_SIZE ids, so the first value must leave a full block above the existing rows.
+        String sequence = table + "_seq";
+        statement.execute("CREATE SEQUENCE " + sequence
+                + " START WITH " + (maxId + ALLOCATION_SIZE) + " INCREMENT BY " + ALLOCATION_SIZE);
+
+        // Plain SQL inserts that omit the id draw from the same sequence; each value they take is the
+        // top of a block nobody else will use.
+        if (postgres) {
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT nextval('" + sequence + "')");
+            statement.execute("ALTER SEQUENCE " + sequence + " OWNED BY " + table + ".id");
+            statement.execute("DROP SEQUENCE IF EXISTS " + table + "_id_seq");
+        } else {
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id DROP IDENTITY");
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN id SET DEFAULT NEXT VALUE FOR " + sequence);
+        }
+    }
+}
@@ -0,0 +1,2 @@
+CREATE INDEX idx_orders_supplier_id ON orders (supplier_id, id);
+CREATE INDEX idx_orders_consumer_id ON orders (consumer_id, id);
@@ -0,0 +1,10 @@
+ALTER TABLE clients ADD COLUMN profit_shards INT DEFAULT 0 NOT NULL;
+
+CREATE TABLE client_profit_shards
+(
+    client_id BIGINT         NOT NULL,
+    shard     INT            NOT NULL,
+    headroom  NUMERIC(19, 2) NOT NULL CHECK (headroom >= 0),
+    PRIMARY KEY (client_id, shard),
+    FOREIGN KEY (client_id) REFERENCES clients (id)
+);
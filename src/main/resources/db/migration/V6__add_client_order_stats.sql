@@ -0,0 +1,23 @@
+CREATE TABLE client_order_stats
+(
+    client_id     BIGINT         NOT NULL,
+    order_date    DATE           NOT NULL,
+    slot          INT            NOT NULL,
+    orders_bought BIGINT         NOT NULL,
+    orders_sold   BIGINT         NOT NULL,
+    bought        NUMERIC(19, 2) NOT NULL,
+    sold          NUMERIC(19, 2) NOT NULL,
+    PRIMARY KEY (client_id, order_date, slot),
+    FOREIGN KEY (client_id) REFERENCES clients (id)
+);
+
+-- One-off backfill from the existing orders; from here on the order transactions keep it up to date.
+INSERT INTO client_order_stats (client_id, order_date, slot, orders_bought, orders_sold, bought, sold)
+SELECT client_id, order_date, 0, SUM(orders_bought), SUM(orders_sold), SUM(bought), SUM(sold)
+FROM (SELECT consumer_id AS client_id, CAST(created_at AS DATE) AS order_date,
+             1 AS orders_bought, 0 AS orders_sold, price AS bought, 0 AS sold
+      FROM orders
+      UNION ALL
+      SELECT supplier_id, CAST(created_at AS DATE), 0, 1, 0, price
+      FROM orders) directed
+GROUP BY client_id, order_date;
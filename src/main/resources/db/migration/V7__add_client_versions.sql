@@ -0,0 +1,3 @@
+ALTER TABLE clients ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE clients ADD COLUMN order_version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE client_profit_shards ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
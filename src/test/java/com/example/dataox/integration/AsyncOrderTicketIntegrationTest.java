@@ -0,0 +1,143 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.dto.OrderTicket;
+import com.example.dataox.dto.OrderTicketStatus;
+import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The default asynchronous mode: orders are answered with a PENDING ticket, which turns CREATED or
+ * REJECTED once the processing delay has elapsed, and disappears after the retention period.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.processing-mode=async",
+        "orders.delay.min=500ms",
+        "orders.delay.max=500ms",
+        "orders.async.ticket-retention=2s"
+})
+class AsyncOrderTicketIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Client supplier;
+    private Client consumer;
+
+    @BeforeEach
+    void setUp() {
+        supplier = clientRepository.save(Client.builder()
+                .name("Async Supplier")
+                .email("async-supplier@example.com")
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+        consumer = clientRepository.save(Client.builder()
+                .name("Async Consumer")
+                .email("async-consumer@example.com")
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testTickets_ShouldReportCreatedAndRejectedOrders() throws InterruptedException {
+        // Both pass the pre-check against a profit of 0, but only one fits under the floor.
+        OrderTicket first = submit("async-order-1", "600");
+        OrderTicket second = submit("async-order-2", "600");
+        assertEquals(OrderTicketStatus.PENDING, first.getStatus(), "Orders should be accepted before processing");
+        assertEquals(OrderTicketStatus.PENDING, second.getStatus(), "Orders should be accepted before processing");
+
+        List<OrderTicket> done = List.of(awaitCompletion(first.getId()), awaitCompletion(second.getId()));
+        List<OrderTicket> created = done.stream().filter(t -> t.getStatus() == OrderTicketStatus.CREATED).toList();
+        List<OrderTicket> rejected = done.stream().filter(t -> t.getStatus() == OrderTicketStatus.REJECTED).toList();
+        assertEquals(1, created.size(), "Exactly one order should be created: " + done);
+        assertEquals(1, rejected.size(), "Exactly one order should be rejected: " + done);
+
+        assertNotNull(created.get(0).getOrderId(), "A created ticket should carry the order id");
+        assertTrue(orderRepository.existsById(created.get(0).getOrderId()), "The ticket's order should be stored");
+        assertNull(rejected.get(0).getOrderId());
+        assertEquals("Creating this order would make consumer's total profit less than -1000", rejected.get(0).getReason(),
+                "A rejected ticket should carry the message the sync mode answers with");
+    }
+
+    @Test
+    void testTickets_ShouldExpireAfterRetention() throws InterruptedException {
+        OrderTicket ticket = awaitCompletion(submit("async-expiring-order", "100").getId());
+        assertEquals(OrderTicketStatus.CREATED, ticket.getStatus());
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (restTemplate.getForEntity("/api/orders/tickets/" + ticket.getId(), String.class).getStatusCode()
+                == HttpStatus.OK) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Finished ticket should be purged after its retention");
+            }
+            Thread.sleep(200);
+        }
+        ResponseEntity<String> expired = restTemplate.getForEntity("/api/orders/tickets/" + ticket.getId(), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, expired.getStatusCode());
+        assertTrue(expired.getBody().contains("Order ticket not found"), "Unexpected body: " + expired.getBody());
+    }
+
+    private OrderTicket submit(String name, String price) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName(name);
+        request.setSupplierId(supplier.getId());
+        request.setConsumerId(consumer.getId());
+        request.setPrice(new BigDecimal(price));
+        ResponseEntity<OrderTicket> response = restTemplate.postForEntity("/api/orders", request, OrderTicket.class);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode(), "Async orders should be answered with 202");
+        return response.getBody();
+    }
+
+    private OrderTicket awaitCompletion(UUID ticketId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            OrderTicket ticket = restTemplate.getForObject("/api/orders/tickets/" + ticketId, OrderTicket.class);
+            if (ticket.getStatus() != OrderTicketStatus.PENDING) {
+                return ticket;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Ticket " + ticketId + " is still pending");
+    }
+}
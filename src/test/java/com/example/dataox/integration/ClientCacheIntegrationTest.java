@@ -0,0 +1,174 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientCacheStats;
+import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.events.ClientChangedEvent;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.services.ClientCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.delay.min=10ms",
+        "orders.delay.max=10ms",
+        "clients.cache.expire-after-write=1s"
+})
+class ClientCacheIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ClientCache clientCache;
+
+    private Client supplier;
+    private Client consumer;
+
+    @BeforeEach
+    void setUp() {
+        supplier = createClient("Cached Supplier", "cached-supplier@example.com");
+        consumer = createClient("Cached Consumer", "cached-consumer@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testLookups_ShouldBeServedFromCache() {
+        ClientCacheStats before = stats();
+        getClient(supplier.getId());
+        getClient(supplier.getId());
+        getClient(supplier.getId());
+        ClientCacheStats after = stats();
+
+        assertEquals(1, after.getMissCount() - before.getMissCount(), "Only the first lookup should load the client");
+        // The ETag check and the body each look the client up, so three requests hit at least twice.
+        assertTrue(after.getHitCount() - before.getHitCount() >= 2, "Later lookups should be cache hits");
+    }
+
+    @Test
+    void testCommittedChanges_ShouldReplaceCachedEntry() {
+        getClient(supplier.getId());
+
+        ClientRequest update = new ClientRequest();
+        update.setName("Renamed Supplier");
+        update.setEmail("cached-supplier@example.com");
+        update.setActive(true);
+        restTemplate.exchange("/api/clients/" + supplier.getId(), HttpMethod.PUT, new HttpEntity<>(update), Client.class);
+        assertEquals("Renamed Supplier", getClient(supplier.getId()).getName(), "An update should replace the cached client");
+
+        getClient(consumer.getId());
+        assertEquals(HttpStatus.OK, createOrder("cached-order", "250.00").getStatusCode());
+        assertEquals(0, new BigDecimal("250.00").compareTo(profitOf(supplier.getId())),
+                "A committed order should replace the cached supplier profit");
+        assertEquals(0, new BigDecimal("-250.00").compareTo(profitOf(consumer.getId())),
+                "A committed order should replace the cached consumer profit");
+    }
+
+    @Test
+    void testRejectedOrders_ShouldLeaveCacheUntouched() {
+        getClient(consumer.getId());
+
+        ResponseEntity<String> rejected = createOrder("cached-rejected", "1500.00");
+
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(consumer.getId())), "A rejected order should publish no profit");
+    }
+
+    @Test
+    void testLateEvents_ShouldNotReplaceNewerEntry() {
+        Client current = getClient(supplier.getId());
+        Client stored = clientRepository.findById(supplier.getId()).orElseThrow();
+        Client newer = stored.toBuilder().name("Newer Supplier").version(stored.getVersion() + 2).build();
+        Client older = stored.toBuilder().name("Older Supplier").version(stored.getVersion() + 1).build();
+
+        clientCache.onClientChanged(ClientChangedEvent.of(newer));
+        clientCache.onClientChanged(ClientChangedEvent.of(older));
+
+        assertEquals("Cached Supplier", current.getName());
+        assertEquals("Newer Supplier", getClient(supplier.getId()).getName(),
+                "A late event of an older version should not replace the cached client");
+    }
+
+    @Test
+    void testEntries_ShouldExpireAfterWrite() throws InterruptedException {
+        getClient(supplier.getId());
+        // A write that bypasses the change events is only seen once the entry expires.
+        jdbcTemplate.update("UPDATE clients SET name = 'Changed Behind Cache' WHERE id = ?", supplier.getId());
+        assertEquals("Cached Supplier", getClient(supplier.getId()).getName(), "The cached client should still be served");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!"Changed Behind Cache".equals(getClient(supplier.getId()).getName())) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Cached client should expire after clients.cache.expire-after-write");
+            }
+            Thread.sleep(200);
+        }
+        assertTrue(stats().getMissCount() >= 2, "The expired entry should be loaded again");
+    }
+
+    private Client createClient(String name, String email) {
+        ClientRequest request = new ClientRequest();
+        request.setName(name);
+        request.setEmail(email);
+        request.setActive(true);
+        return restTemplate.postForEntity("/api/clients", request, Client.class).getBody();
+    }
+
+    private ResponseEntity<String> createOrder(String name, String price) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName(name);
+        request.setSupplierId(supplier.getId());
+        request.setConsumerId(consumer.getId());
+        request.setPrice(new BigDecimal(price));
+        return restTemplate.postForEntity("/api/orders", request, String.class);
+    }
+
+    private Client getClient(Long id) {
+        ResponseEntity<Client> response = restTemplate.getForEntity("/api/clients/" + id, Client.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private BigDecimal profitOf(Long id) {
+        return restTemplate.getForObject("/api/clients/" + id + "/profit", Money.class).toBigDecimal();
+    }
+
+    private ClientCacheStats stats() {
+        return restTemplate.getForObject("/api/clients/cache/stats", ClientCacheStats.class);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientImportRejection;
+import com.example.dataox.dto.ClientImportResult;
+import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.services.ClientImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "clients.bulk-import.chunk-size=2",
+        "clients.bulk-import.max-reported-rejections=4"
+})
+class ClientImportIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ClientImportService clientImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testCsvImport_ShouldParseQuotedFieldsAndOptionalColumns() {
+        String csv = "﻿Email,Name,Address,Active\n"
+                + "plain@example.com,Plain Client,Kyiv,true\n"
+                + "\n"
+                + "quoted@example.com,\"Quoted, Client\",\"Lviv, \"\"Old Town\"\"\",no\n"
+                + "short@example.com,Short Row\n"
+                + "\"unterminated@example.com,Broken\n";
+
+        ClientImportResult result = importBody(csv, MediaType.parseMediaType("text/csv"));
+
+        assertEquals(3, result.getAccepted());
+        assertEquals(1, result.getRejected());
+        assertEquals(List.of(new ClientImportRejection(6, null, "Unterminated quoted field")), result.getRejections());
+
+        Map<String, Client> clients = clientsByEmail();
+        assertEquals("Quoted, Client", clients.get("quoted@example.com").getName());
+        assertEquals("Lviv, \"Old Town\"", clients.get("quoted@example.com").getAddress());
+        assertFalse(clients.get("quoted@example.com").isActive());
+        assertEquals(null, clients.get("short@example.com").getAddress(), "Missing trailing fields should be empty");
+        assertTrue(clients.get("short@example.com").isActive(), "Active should default to true");
+        assertEquals(0, Money.ZERO.compareTo(clients.get("plain@example.com").getProfit()));
+    }
+
+    @Test
+    void testCsvImport_ShouldRequireHeaderColumns() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/clients/import",
+                new HttpEntity<>("name,address\nNo Email,Kyiv\n", headers(MediaType.parseMediaType("text/csv"))), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().contains("name and email"), "Unexpected body: " + response.getBody());
+    }
+
+    @Test
+    void testNdjsonImport_ShouldRejectInvalidRowsWithReasons() {
+        String ndjson = "{\"name\":\"Json Client\",\"email\":\"json@example.com\",\"address\":\"Odesa\"}\n"
+                + "not json\n"
+                + "[1, 2]\n"
+                + "{\"name\":\" \",\"email\":\"blank-name@example.com\"}\n"
+                + "{\"name\":\"Bad Email\",\"email\":\"not-an-email\"}\n"
+                + "{\"name\":\"Bad Active\",\"email\":\"bad-active@example.com\",\"active\":\"maybe\"}\n";
+
+        ClientImportResult result = importBody(ndjson, MediaType.APPLICATION_NDJSON);
+
+        assertEquals(1, result.getAccepted());
+        assertEquals(5, result.getRejected(), "Every invalid row should be counted");
+        assertEquals(List.of(
+                new ClientImportRejection(2, null, "Malformed JSON"),
+                new ClientImportRejection(3, null, "Row must be a JSON object"),
+                new ClientImportRejection(4, "blank-name@example.com", "Name must be provided"),
+                new ClientImportRejection(5, "not-an-email", "Invalid email format")), result.getRejections(),
+                "Only the first max-reported-rejections rows should be listed");
+    }
+
+    @Test
+    void testImport_ShouldAcceptEmailsLikeTheClientConstraint() {
+        // @Email does not require a dot in the domain, so neither does the import.
+        ClientImportResult result = importBody("{\"name\":\"Local Client\",\"email\":\"admin@localhost\"}\n",
+                MediaType.APPLICATION_NDJSON);
+
+        assertEquals(1, result.getAccepted(), "Rejections: " + result.getRejections());
+    }
+
+    @Test
+    void testImport_ShouldRejectDuplicateEmails() {
+        clientRepository.save(Client.builder()
+                .name("Existing Client")
+                .email("existing@example.com")
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+        String csv = "name,email\n"
+                + "First,dup@example.com\n"
+                + "Existing Again,existing@example.com\n"
+                + "Second,dup@example.com\n";
+
+        ClientImportResult result = importBody(csv, MediaType.parseMediaType("text/csv"));
+
+        assertEquals(1, result.getAccepted());
+        assertEquals(List.of(
+                new ClientImportRejection(3, "existing@example.com", "Email already exists"),
+                new ClientImportRejection(4, "dup@example.com", "Duplicate of the email on line 2")), result.getRejections());
+        assertEquals(2, clientRepository.count());
+    }
+
+    @Test
+    void testImport_ShouldRetryFailedChunkRowByRow() throws Exception {
+        // The second part of the body is requested after the import loaded the known emails, so the email taken
+        // there is only caught by the unique constraint when the second chunk is inserted.
+        InputStream body = new SequenceInputStream(new Enumeration<>() {
+            private int parts;
+
+            @Override
+            public boolean hasMoreElements() {
+                return parts < 2;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                if (parts++ == 0) {
+                    return stream("{\"name\":\"Chunk One A\",\"email\":\"chunk-1a@example.com\"}\n"
+                            + "{\"name\":\"Chunk One B\",\"email\":\"chunk-1b@example.com\"}\n");
+                }
+                jdbcTemplate.update("INSERT INTO clients (id, name, email, profit, active, profit_shards, version, order_version) "
+                        + "VALUES (NEXT VALUE FOR clients_seq, 'Concurrent Client', 'chunk-2b@example.com', 0, TRUE, 0, 0, 0)");
+                return stream("{\"name\":\"Chunk Two A\",\"email\":\"chunk-2a@example.com\"}\n"
+                        + "{\"name\":\"Chunk Two B\",\"email\":\"chunk-2b@example.com\"}\n");
+            }
+        });
+
+        ClientImportResult result = clientImportService.importNdjson(body);
+
+        assertEquals(3, result.getAccepted(), "Rows of the failed chunk without a conflict should still be inserted");
+        assertEquals(List.of(new ClientImportRejection(4, "chunk-2b@example.com", "Email already exists")), result.getRejections());
+        assertTrue(clientsByEmail().containsKey("chunk-2a@example.com"));
+        assertEquals("Concurrent Client", clientsByEmail().get("chunk-2b@example.com").getName());
+    }
+
+    private ClientImportResult importBody(String body, MediaType type) {
+        ResponseEntity<ClientImportResult> response = restTemplate.postForEntity("/api/clients/import",
+                new HttpEntity<>(body, headers(type)), ClientImportResult.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private Map<String, Client> clientsByEmail() {
+        return clientRepository.findAll().stream().collect(Collectors.toMap(Client::getEmail, Function.identity()));
+    }
+
+    private static HttpHeaders headers(MediaType type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(type);
+        return headers;
+    }
+
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientDailyStats;
+import com.example.dataox.dto.ClientOrderStatsSummary;
+import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.dto.OrderBatchResult;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The {@code client_order_stats} rollup behind {@code /api/clients/{id}/stats}: written by single, batch and
+ * hot-client orders, and read back as an all-time summary or as daily buckets.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.delay.min=10ms",
+        "orders.delay.max=10ms"
+})
+class ClientOrderStatsIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Client alpha;
+    private Client beta;
+
+    @BeforeEach
+    void setUp() {
+        alpha = createClient("Stats Alpha", "stats-alpha@example.com");
+        beta = createClient("Stats Beta", "stats-beta@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testRegularClients_ShouldCountBothDirections() {
+        assertEquals(HttpStatus.OK, createOrder("stats-one", alpha, beta, "100.00").getStatusCode());
+        assertEquals(HttpStatus.OK, createOrder("stats-two", alpha, beta, "50.00").getStatusCode());
+        assertEquals(HttpStatus.OK, createOrder("stats-back", beta, alpha, "30.00").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, createOrder("stats-over-floor", alpha, beta, "900.00").getStatusCode());
+
+        ClientOrderStatsSummary stats = stats(alpha);
+        assertEquals(2, stats.getOrdersSold());
+        assertEquals(1, stats.getOrdersBought());
+        assertEquals(0, new BigDecimal("150").compareTo(stats.getTotalSold()));
+        assertEquals(0, new BigDecimal("30").compareTo(stats.getTotalBought()));
+        assertEquals(0, new BigDecimal("60.00").compareTo(stats.getAveragePrice()));
+        assertEquals(LocalDate.now(), stats.getFirstOrderDate());
+        assertEquals(LocalDate.now(), stats.getLastOrderDate());
+
+        ClientOrderStatsSummary mirror = stats(beta);
+        assertEquals(stats.getOrdersSold(), mirror.getOrdersBought(), "Every sale of one client is a purchase of the other");
+        assertEquals(0, stats.getTotalSold().compareTo(mirror.getTotalBought()));
+    }
+
+    @Test
+    void testNoOrders_ShouldReportZeros() {
+        ClientOrderStatsSummary stats = stats(alpha);
+
+        assertEquals(0, stats.getOrders());
+        assertEquals(0, BigDecimal.ZERO.compareTo(stats.getTotalBought()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(stats.getAveragePrice()));
+        assertNull(stats.getFirstOrderDate());
+        assertEquals(List.of(), List.of(daily(alpha, "")));
+    }
+
+    @Test
+    void testBatchOrders_ShouldCountOnlyCreatedItems() {
+        Client gamma = createClient("Stats Gamma", "stats-gamma@example.com");
+        List<OrderCreateRequest> batch = List.of(
+                order("stats-batch-1", alpha, beta, "10.00"),
+                order("stats-batch-2", alpha, gamma, "20.00"),
+                order("stats-batch-1", alpha, beta, "10.00"),
+                order("stats-batch-3", gamma, alpha, "5.00"));
+
+        OrderBatchResult result = restTemplate.postForObject("/api/orders/batch", batch, OrderBatchResult.class);
+
+        assertEquals(3, result.getCreated());
+        ClientOrderStatsSummary stats = stats(alpha);
+        assertEquals(2, stats.getOrdersSold(), "The rejected duplicate should not be counted");
+        assertEquals(1, stats.getOrdersBought());
+        assertEquals(0, new BigDecimal("30").compareTo(stats.getTotalSold()));
+        assertEquals(0, new BigDecimal("5").compareTo(stats.getTotalBought()));
+        assertEquals(1, stats(gamma).getOrdersSold());
+        assertEquals(1, stats(gamma).getOrdersBought());
+    }
+
+    @Test
+    void testHotClient_ShouldSumOrdersSpreadOverShardSlots() throws Exception {
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity("/api/clients/" + beta.getId() + "/hot?shards=4", null,
+                Client.class).getStatusCode());
+        List<Client> suppliers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            suppliers.add(createClient("Stats Supplier " + i, "stats-supplier-" + i + "@example.com"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(suppliers.size());
+        try {
+            // Each order fits in any shard's headroom, so the orders spread over slots without rebalancing.
+            List<CompletableFuture<ResponseEntity<String>>> requests = suppliers.stream()
+                    .map(supplier -> CompletableFuture.supplyAsync(
+                            () -> createOrder("stats-hot", supplier, beta, "20.00"), executor))
+                    .toList();
+            for (CompletableFuture<ResponseEntity<String>> request : requests) {
+                assertEquals(HttpStatus.OK, request.get().getStatusCode());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        ClientOrderStatsSummary stats = stats(beta);
+        assertEquals(10, stats.getOrdersBought(), "Stats rollup should count every order spread over the shard slots");
+        assertEquals(0, new BigDecimal("200").compareTo(stats.getTotalBought()),
+                "Stats rollup should sum the bought orders, but was: " + stats.getTotalBought());
+        ClientDailyStats[] today = daily(beta, "");
+        assertEquals(1, today.length, "Slots of the same day should be summed into one bucket");
+        assertEquals(10, today[0].getOrdersBought());
+    }
+
+    @Test
+    void testDailyStats_ShouldReturnBucketsOfTheRangeInDateOrder() {
+        LocalDate day = LocalDate.of(2024, 3, 10);
+        rollup(alpha, day.minusDays(1), 0, 1, 0, "5.00", "0");
+        rollup(alpha, day, 0, 2, 1, "40.00", "7.00");
+        rollup(alpha, day, 3, 1, 0, "10.00", "0");
+        rollup(alpha, day.plusDays(2), 0, 0, 4, "0", "80.00");
+        rollup(beta, day, 0, 9, 9, "900.00", "900.00");
+
+        ClientDailyStats[] buckets = daily(alpha, "?from=" + day + "&to=" + day.plusDays(3));
+
+        assertEquals(List.of(day, day.plusDays(2)), List.of(buckets).stream().map(ClientDailyStats::getDate).toList(),
+                "Days outside the range and days without orders should be omitted");
+        assertEquals(3, buckets[0].getOrdersBought(), "Slots of one day should be summed");
+        assertEquals(1, buckets[0].getOrdersSold());
+        assertEquals(0, new BigDecimal("50.00").compareTo(buckets[0].getBought()));
+        assertEquals(0, new BigDecimal("7.00").compareTo(buckets[0].getSold()));
+        assertEquals(0, new BigDecimal("14.25").compareTo(buckets[0].getAveragePrice()));
+        assertEquals(4, buckets[1].getOrdersSold());
+
+        ClientOrderStatsSummary stats = stats(alpha);
+        assertEquals(4, stats.getOrdersBought());
+        assertEquals(day.minusDays(1), stats.getFirstOrderDate());
+        assertEquals(day.plusDays(2), stats.getLastOrderDate());
+    }
+
+    @Test
+    void testDailyStats_ShouldValidateTheRange() {
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/clients/" + alpha.getId()
+                + "/stats/daily?from=2024-03-10&to=2024-03-09", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/clients/" + alpha.getId()
+                + "/stats/daily?from=2023-01-01&to=2024-03-09", String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, restTemplate.getForEntity("/api/clients/" + alpha.getId()
+                + "/stats/daily?from=2023-03-10&to=2024-03-09", String.class).getStatusCode(),
+                "A range of 366 days should be allowed");
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                "/api/clients/" + Long.MAX_VALUE + "/stats/daily", String.class).getStatusCode());
+    }
+
+    private void rollup(Client client, LocalDate day, int slot, long bought, long sold, String boughtTotal, String soldTotal) {
+        jdbcTemplate.update("INSERT INTO client_order_stats (client_id, order_date, slot, orders_bought, orders_sold, bought, sold) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)", client.getId(), Date.valueOf(day), slot, bought, sold,
+                new BigDecimal(boughtTotal), new BigDecimal(soldTotal));
+    }
+
+    private ClientOrderStatsSummary stats(Client client) {
+        ResponseEntity<ClientOrderStatsSummary> response = restTemplate.getForEntity(
+                "/api/clients/" + client.getId() + "/stats", ClientOrderStatsSummary.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private ClientDailyStats[] daily(Client client, String query) {
+        ResponseEntity<ClientDailyStats[]> response = restTemplate.getForEntity(
+                "/api/clients/" + client.getId() + "/stats/daily" + query, ClientDailyStats[].class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private Client createClient(String name, String email) {
+        ClientRequest request = new ClientRequest();
+        request.setName(name);
+        request.setEmail(email);
+        request.setActive(true);
+        return restTemplate.postForEntity("/api/clients", request, Client.class).getBody();
+    }
+
+    private ResponseEntity<String> createOrder(String name, Client from, Client to, String price) {
+        return restTemplate.postForEntity("/api/orders", order(name, from, to, price), String.class);
+    }
+
+    private static OrderCreateRequest order(String name, Client from, Client to, String price) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName(name);
+        request.setSupplierId(from.getId());
+        request.setConsumerId(to.getId());
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+}
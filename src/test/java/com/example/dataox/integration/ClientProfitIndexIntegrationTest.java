@@ -0,0 +1,142 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientProfitPage;
+import com.example.dataox.entities.Client;
+import com.example.dataox.events.ClientChangedEvent;
+import com.example.dataox.index.ClientProfitIndex;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ClientProfitIndexIntegrationTest {
+    /** Profits of the clients created in order; two pairs tie so the id tie-break is visible. */
+    private static final int[] PROFITS = {50, -200, 300, 50, 0, 300, -1000, 120};
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ClientProfitIndex clientProfitIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Client> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Saved without events, so only the rebuild below puts them into the index.
+        for (int i = 0; i < PROFITS.length; i++) {
+            clients.add(clientRepository.save(Client.builder()
+                    .name("Ranked Client " + i)
+                    .email("ranked-" + i + "@example.com")
+                    .profit(Money.of(PROFITS[i]))
+                    .active(true)
+                    .build()));
+        }
+        clientProfitIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+        clients.clear();
+    }
+
+    @Test
+    void testTop_ShouldOrderByProfitAndBreakTiesById() {
+        assertEquals(List.of(id(5), id(2), id(7)), ids(restTemplate.getForObject("/api/clients/top?n=3", Client[].class)),
+                "Highest profits first, ties by descending id");
+        assertEquals(List.of(id(6), id(1), id(4), id(0), id(3)),
+                ids(restTemplate.getForObject("/api/clients/top?n=5&order=asc", Client[].class)),
+                "Lowest profits first, ties by ascending id");
+        assertEquals(PROFITS.length, restTemplate.getForObject("/api/clients/top?n=100", Client[].class).length);
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/clients/top?n=0", String.class).getStatusCode());
+    }
+
+    @Test
+    void testRange_ShouldIncludeBothBounds() {
+        assertEquals(List.of(id(1), id(4), id(0), id(3), id(7)),
+                ids(restTemplate.getForObject("/api/clients/by-profit?min=-200&max=120", Client[].class)));
+        assertEquals(List.of(id(6)), ids(restTemplate.getForObject("/api/clients/by-profit?max=-999.99", Client[].class)),
+                "An open lower bound should reach the floor");
+        assertEquals(List.of(), ids(restTemplate.getForObject("/api/clients/by-profit?min=301", Client[].class)));
+        assertEquals(List.of(), ids(restTemplate.getForObject("/api/clients/by-profit?min=100&max=0", Client[].class)),
+                "An empty range should return no clients");
+    }
+
+    @Test
+    void testRangePages_ShouldContinueAfterTheCursorAcrossTies() {
+        List<Long> seen = new ArrayList<>();
+        List<String> cursors = new ArrayList<>();
+        String after = null;
+        do {
+            ClientProfitPage page = restTemplate.getForObject("/api/clients/by-profit?min=0&limit=2"
+                    + (after == null ? "" : "&after=" + after), ClientProfitPage.class);
+            page.getItems().forEach(client -> seen.add(client.getId()));
+            after = page.getNextCursor();
+            cursors.add(after);
+        } while (after != null);
+
+        assertEquals(List.of(id(4), id(0), id(3), id(7), id(2), id(5)), seen,
+                "Pages should hold every client in range once, in profit and id order");
+        assertEquals("50.00:" + id(0), cursors.get(0), "The first page should end between two tied clients");
+        assertNull(cursors.get(cursors.size() - 1));
+        assertEquals(HttpStatus.BAD_REQUEST,
+                restTemplate.getForEntity("/api/clients/by-profit?limit=2&after=oops", String.class).getStatusCode());
+    }
+
+    @Test
+    void testChanges_ShouldIgnoreEventsOlderThanTheIndexedRow() {
+        Client current = clientRepository.findById(id(4)).orElseThrow();
+        Client newer = current.toBuilder().profit(Money.of(900)).version(current.getVersion() + 2).build();
+        Client older = current.toBuilder().profit(Money.of(-500)).version(current.getVersion() + 1).build();
+
+        clientProfitIndex.onClientChanged(ClientChangedEvent.of(newer));
+        clientProfitIndex.onClientChanged(ClientChangedEvent.of(older));
+
+        assertEquals(List.of(id(4)), ids(restTemplate.getForObject("/api/clients/top?n=1", Client[].class)),
+                "A late event of an older version should not move the client back");
+    }
+
+    @Test
+    void testRebuild_ShouldRepairDrift() {
+        jdbcTemplate.update("UPDATE clients SET profit = 1000 WHERE id = ?", id(1));
+
+        assertEquals(1, clientProfitIndex.rebuild(), "The client changed behind the index should be counted");
+        assertEquals(List.of(id(1)), ids(restTemplate.getForObject("/api/clients/top?n=1", Client[].class)));
+        assertEquals(0, clientProfitIndex.rebuild(), "A second rebuild should find nothing to repair");
+    }
+
+    private Long id(int index) {
+        return clients.get(index).getId();
+    }
+
+    private static List<Long> ids(Client[] clients) {
+        return Arrays.stream(clients).map(Client::getId).toList();
+    }
+}
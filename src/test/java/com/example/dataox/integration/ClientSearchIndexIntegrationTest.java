@@ -0,0 +1,153 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.index.ClientSearchIndex;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The trigram index must answer exactly like the {@code LIKE} query it replaces, after a rebuild from the
+ * table as well as after each committed client change.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ClientSearchIndexIntegrationTest {
+    private static final String[] SYLLABLES = {"an", "ber", "ko", "lin", "mar", "na", "os", "ta", "vel", "zur"};
+    private static final String[] CITIES = {"Kyiv", "Lviv", "Odesa", "Kharkiv", "Dnipro"};
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ClientSearchIndex clientSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        // Saved without events, so only the rebuild below puts them into the index.
+        Random random = new Random(42);
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            String name = word(random) + " " + word(random);
+            clients.add(Client.builder()
+                    .name(Character.toUpperCase(name.charAt(0)) + name.substring(1))
+                    .email(word(random) + i + "@" + (i % 3 == 0 ? "example.com" : "mail.org"))
+                    .address(i % 7 == 0 ? null : CITIES[random.nextInt(CITIES.length)] + ", " + word(random) + " st. " + i)
+                    .profit(Money.ZERO)
+                    .active(true)
+                    .build());
+        }
+        clientRepository.saveAll(clients);
+        clientSearchIndex.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testSearch_ShouldMatchDatabaseQuery() {
+        List<String[]> queries = List.of(
+                new String[]{"mar", null, null},
+                new String[]{"MAR", null, null},
+                new String[]{"an ber", null, null},
+                new String[]{"kol", null, null},
+                new String[]{null, "example.com", null},
+                new String[]{null, "10@", null},
+                new String[]{null, null, "kyiv"},
+                new String[]{null, null, "st. 1"},
+                new String[]{"lin", "mail", "odesa"},
+                new String[]{"zurzurzur", null, null},
+                new String[]{"xyz", null, null});
+        for (String[] query : queries) {
+            assertTrue(clientSearchIndex.canSearch(query[0], query[1], query[2]),
+                    "Query should be answered by the index: " + Arrays.toString(query));
+            List<Long> expected = clientRepository.searchClients(query[0], query[1], query[2]).stream()
+                    .map(Client::getId)
+                    .sorted()
+                    .toList();
+            assertEquals(expected, clientSearchIndex.search(query[0], query[1], query[2]),
+                    "Index and database should agree on " + Arrays.toString(query));
+        }
+    }
+
+    @Test
+    void testSearch_ShouldFollowCommittedChanges() {
+        Client created = restTemplate.postForEntity("/api/clients", request("Quokka Trading", "quokka@example.com", "Uzhhorod"),
+                Client.class).getBody();
+        assertEquals(List.of(created.getId()), searchIds("/api/clients/search?name=quokka"), "A new client should be found");
+
+        restTemplate.exchange("/api/clients/" + created.getId(), HttpMethod.PUT,
+                new HttpEntity<>(request("Wombat Trading", "quokka@example.com", "Uzhhorod")), Client.class);
+        assertEquals(List.of(), searchIds("/api/clients/search?name=quokka"), "An old name should no longer match");
+        assertEquals(List.of(created.getId()), searchIds("/api/clients/search?name=wombat&address=uzhh"),
+                "A new name should match");
+
+        restTemplate.delete("/api/clients/" + created.getId());
+        List<Client> deactivated = restTemplate.exchange("/api/clients/search?name=wombat", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<Client>>() { }).getBody();
+        assertEquals(1, deactivated.size(), "Deactivated clients stay searchable, like in the database query");
+        assertFalse(deactivated.get(0).isActive());
+    }
+
+    @Test
+    void testSearch_ShouldLeaveWildcardsAndShortTermsToDatabase() {
+        assertFalse(clientSearchIndex.canSearch("10%", null, null), "LIKE wildcards should go to the database");
+        assertFalse(clientSearchIndex.canSearch(null, "a_b", null), "LIKE wildcards should go to the database");
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/clients/search?name=ab", String.class).getStatusCode());
+
+        List<Long> expected = clientRepository.searchClients(null, "1_@", null).stream()
+                .map(Client::getId)
+                .sorted()
+                .toList();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, searchIds("/api/clients/search?email=1_@"), "Wildcard searches should still be answered");
+    }
+
+    private List<Long> searchIds(String url) {
+        Client[] clients = restTemplate.getForObject(url, Client[].class);
+        return Arrays.stream(clients).map(Client::getId).sorted(Comparator.naturalOrder()).toList();
+    }
+
+    private static ClientRequest request(String name, String email, String address) {
+        ClientRequest request = new ClientRequest();
+        request.setName(name);
+        request.setEmail(email);
+        request.setAddress(address);
+        request.setActive(true);
+        return request;
+    }
+
+    private static String word(Random random) {
+        return SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)];
+    }
+}
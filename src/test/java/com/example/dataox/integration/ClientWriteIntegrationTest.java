@@ -0,0 +1,75 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.entities.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ClientWriteIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testDuplicateEmail_ShouldBeRejectedWith409() {
+        assertEquals(HttpStatus.OK, create("First Client", "taken@example.com").getStatusCode());
+        Client other = create("Second Client", "free@example.com").getBody();
+
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/clients",
+                request("Third Client", "taken@example.com"), String.class);
+        assertEquals(HttpStatus.CONFLICT, created.getStatusCode());
+        assertTrue(created.getBody().contains("Email is already used by another client"), "Unexpected body: " + created.getBody());
+
+        ResponseEntity<String> updated = restTemplate.exchange("/api/clients/" + other.getId(), HttpMethod.PUT,
+                new HttpEntity<>(request("Second Client", "taken@example.com")), String.class);
+        assertEquals(HttpStatus.CONFLICT, updated.getStatusCode());
+        assertTrue(updated.getBody().contains("Email is already used by another client"), "Unexpected body: " + updated.getBody());
+    }
+
+    @Test
+    void testClientJson_ShouldLeaveOutInternalFields() {
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/clients",
+                request("Plain Client", "plain@example.com"), String.class);
+
+        assertEquals(HttpStatus.OK, created.getStatusCode());
+        assertTrue(created.getBody().contains("\"profit\""), "Unexpected body: " + created.getBody());
+        for (String field : new String[]{"profitShards", "version", "orderVersion", "hot"}) {
+            assertFalse(created.getBody().contains("\"" + field + "\""), field + " should not be exposed: " + created.getBody());
+        }
+    }
+
+    private ResponseEntity<Client> create(String name, String email) {
+        return restTemplate.postForEntity("/api/clients", request(name, email), Client.class);
+    }
+
+    private static ClientRequest request(String name, String email) {
+        ClientRequest request = new ClientRequest();
+        request.setName(name);
+        request.setEmail(email);
+        request.setActive(true);
+        return request;
+    }
+}
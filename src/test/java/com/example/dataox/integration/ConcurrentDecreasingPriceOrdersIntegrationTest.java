@@ -3,6 +3,7 @@ package com.example.dataox.integration;
 import com.example.dataox.dto.OrderCreateRequest;
 import com.example.dataox.entities.Client;
 import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
 import com.example.dataox.repo.ClientRepository;
 import com.example.dataox.repo.OrderRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -29,6 +31,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @ActiveProfiles("test")
 class ConcurrentDecreasingPriceOrdersIntegrationTest {
 
+    @Autowired
+    private ApplicationContext context;
+
     @Autowired
     private TestRestTemplate restTemplate;
 
@@ -46,7 +51,7 @@ class ConcurrentDecreasingPriceOrdersIntegrationTest {
         supplier = Client.builder()
                 .name("Supplier")
                 .email("supplier@example.com")
-                .profit(BigDecimal.ZERO)
+                .profit(Money.ZERO)
                 .active(true)
                 .build();
         supplier = clientRepository.save(supplier);
@@ -54,7 +59,7 @@ class ConcurrentDecreasingPriceOrdersIntegrationTest {
         consumer = Client.builder()
                 .name("Consumer")
                 .email("consumer@example.com")
-                .profit(BigDecimal.ZERO)
+                .profit(Money.ZERO)
                 .active(true)
                 .build();
         consumer = clientRepository.save(consumer);
@@ -70,8 +75,7 @@ class ConcurrentDecreasingPriceOrdersIntegrationTest {
 
     @AfterEach
     void tearDown() {
-        orderRepository.deleteAll();
-        clientRepository.deleteAll();
+        TestDatabase.clear(context);
     }
 
     @Test
@@ -106,7 +110,7 @@ class ConcurrentDecreasingPriceOrdersIntegrationTest {
             });
         }
 
-        latch.await(30, TimeUnit.SECONDS);
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "Requests did not finish in time");
         executor.shutdown();
 
         assertEquals(1, successCount.get(), "Only one order should be created");
@@ -128,6 +132,6 @@ class ConcurrentDecreasingPriceOrdersIntegrationTest {
     private BigDecimal calculateConsumerProfit(Long consumerId) {
         Client updatedConsumer = clientRepository.findById(consumerId)
                 .orElseThrow(() -> new IllegalStateException("Consumer not found in DB"));
-        return updatedConsumer.getProfit() != null ? updatedConsumer.getProfit() : BigDecimal.ZERO;
+        return updatedConsumer.getProfit() != null ? updatedConsumer.getProfit().toBigDecimal() : BigDecimal.ZERO;
     }
 }
\ No newline at end of file
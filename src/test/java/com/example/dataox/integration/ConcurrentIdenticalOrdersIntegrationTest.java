@@ -3,6 +3,7 @@ package com.example.dataox.integration;
 import com.example.dataox.dto.OrderCreateRequest;
 import com.example.dataox.entities.Client;
 import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
 import com.example.dataox.repo.ClientRepository;
 import com.example.dataox.repo.OrderRepository;
 import org.junit.jupiter.api.AfterEach;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 
@@ -23,11 +25,15 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
 class ConcurrentIdenticalOrdersIntegrationTest {
 
+    @Autowired
+    private ApplicationContext context;
+
     @Autowired
     private TestRestTemplate restTemplate;
 
@@ -45,7 +51,7 @@ class ConcurrentIdenticalOrdersIntegrationTest {
         supplier = Client.builder()
                 .name("Supplier")
                 .email("supplier@example.com")
-                .profit(BigDecimal.ZERO)
+                .profit(Money.ZERO)
                 .active(true)
                 .build();
         supplier = clientRepository.save(supplier);
@@ -53,7 +59,7 @@ class ConcurrentIdenticalOrdersIntegrationTest {
         consumer = Client.builder()
                 .name("Consumer")
                 .email("consumer@example.com")
-                .profit(BigDecimal.ZERO)
+                .profit(Money.ZERO)
                 .active(true)
                 .build();
         consumer = clientRepository.save(consumer);
@@ -61,8 +67,7 @@ class ConcurrentIdenticalOrdersIntegrationTest {
 
     @AfterEach
     void tearDown() {
-        orderRepository.deleteAll();
-        clientRepository.deleteAll();
+        TestDatabase.clear(context);
     }
 
     @Test
@@ -96,7 +101,7 @@ class ConcurrentIdenticalOrdersIntegrationTest {
             });
         }
 
-        latch.await(30, TimeUnit.SECONDS);
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "Requests did not finish in time");
         executor.shutdown();
 
         assertEquals(1, successCount.get(), "Only one order should be created");
@@ -109,6 +114,6 @@ class ConcurrentIdenticalOrdersIntegrationTest {
         assertEquals("Duplicate Order", createdOrder.getName());
         assertEquals(supplier.getId(), createdOrder.getSupplier().getId());
         assertEquals(consumer.getId(), createdOrder.getConsumer().getId());
-        assertEquals(0, BigDecimal.ONE.compareTo(createdOrder.getPrice()));
+        assertEquals(0, BigDecimal.ONE.compareTo(createdOrder.getPrice().toBigDecimal()));
     }
 }
\ No newline at end of file
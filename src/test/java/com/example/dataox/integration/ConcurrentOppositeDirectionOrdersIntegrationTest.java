@@ -0,0 +1,172 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import com.example.dataox.services.OrderTransactionalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ConcurrentOppositeDirectionOrdersIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderTransactionalService orderTransactionalService;
+
+    private Client clientA;
+    private Client clientB;
+
+    @BeforeEach
+    void setUp() {
+        clientA = Client.builder()
+                .name("Client A")
+                .email("client-a@example.com")
+                .profit(Money.ZERO)
+                .active(true)
+                .build();
+        clientA = clientRepository.save(clientA);
+
+        clientB = Client.builder()
+                .name("Client B")
+                .email("client-b@example.com")
+                .profit(Money.ZERO)
+                .active(true)
+                .build();
+        clientB = clientRepository.save(clientB);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testOppositeDirectionOrders_ShouldAllBeCreatedWithoutDeadlock() throws InterruptedException {
+        int ordersPerDirection = 10;
+        int numberOfRequests = ordersPerDirection * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfRequests);
+        CountDownLatch latch = new CountDownLatch(numberOfRequests);
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger errorCount = new AtomicInteger(0);
+
+        for (int i = 0; i < numberOfRequests; i++) {
+            boolean forward = i % 2 == 0;
+            OrderCreateRequest request = new OrderCreateRequest();
+            request.setName((forward ? "a-to-b-" : "b-to-a-") + i / 2);
+            request.setSupplierId(forward ? clientA.getId() : clientB.getId());
+            request.setConsumerId(forward ? clientB.getId() : clientA.getId());
+            request.setPrice(new BigDecimal("10.00"));
+
+            executor.submit(() -> {
+                try {
+                    ResponseEntity<Order> response = restTemplate.postForEntity(
+                            "/api/orders", request, Order.class);
+
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        successCount.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errorCount.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "Requests did not finish in time");
+        executor.shutdown();
+
+        assertEquals(numberOfRequests, successCount.get(), "All orders should be created");
+        assertEquals(0, errorCount.get(), "No request should fail with a deadlock or serialization error");
+        assertEquals(numberOfRequests, orderRepository.count(), "Every order should be persisted");
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(clientA.getId())), "Client A profit should net out to zero");
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(clientB.getId())), "Client B profit should net out to zero");
+    }
+
+    @Test
+    void testOppositeDirectionTransactions_ShouldLockRowsInIdOrderWithoutStripes() throws InterruptedException {
+        // Calls the transaction directly, so only the row lock order keeps A->B and B->A from deadlocking.
+        int ordersPerDirection = 10;
+        int numberOfOrders = ordersPerDirection * 2;
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfOrders);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(numberOfOrders);
+        AtomicInteger successCount = new AtomicInteger(0);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < numberOfOrders; i++) {
+            boolean forward = i % 2 == 0;
+            OrderCreateRequest request = new OrderCreateRequest();
+            request.setName((forward ? "direct-a-to-b-" : "direct-b-to-a-") + i / 2);
+            request.setPrice(new BigDecimal("10.00"));
+            Long supplierId = forward ? clientA.getId() : clientB.getId();
+            Long consumerId = forward ? clientB.getId() : clientA.getId();
+
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    orderTransactionalService.saveOrderTransactional(LocalDateTime.now(), request, supplierId, consumerId);
+                    successCount.incrementAndGet();
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        start.countDown();
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "Transactions did not finish in time");
+        executor.shutdown();
+
+        assertEquals(List.of(), failures, "No transaction should fail with a deadlock or lock timeout");
+        assertEquals(numberOfOrders, successCount.get(), "All orders should be created");
+        assertEquals(numberOfOrders, orderRepository.count(), "Every order should be persisted");
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(clientA.getId())), "Client A profit should net out to zero");
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(clientB.getId())), "Client B profit should net out to zero");
+    }
+
+    private BigDecimal profitOf(Long clientId) {
+        return clientRepository.findById(clientId)
+                .orElseThrow(() -> new IllegalStateException("Client not found in DB"))
+                .getProfit()
+                .toBigDecimal();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ETags of the client, profit and client order list endpoints: 304 while nothing committed, a new validator
+ * after every change, and one weak validator shared by all response formats, kept apart by {@code Vary: Accept}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.delay.min=10ms",
+        "orders.delay.max=10ms"
+})
+class ConditionalGetIntegrationTest {
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    private Client clientA;
+    private Client clientB;
+
+    @BeforeEach
+    void setUp() {
+        clientA = createClient("ETag Client A", "etag-a@example.com");
+        clientB = createClient("ETag Client B", "etag-b@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testClientETag_ShouldAnswerUnchangedClientWith304() {
+        for (String url : List.of(clientUrl(), clientUrl() + "/profit", "/api/orders/clients/" + clientA.getId() + "/orders")) {
+            ResponseEntity<byte[]> first = get(url, MediaType.APPLICATION_JSON, null);
+            String etag = first.getHeaders().getETag();
+            assertTrue(etag != null && etag.startsWith("W/\""), url + " should carry a weak ETag, was " + etag);
+            assertVaryAccept(first);
+
+            ResponseEntity<byte[]> unchanged = get(url, MediaType.APPLICATION_JSON, etag);
+            assertEquals(HttpStatus.NOT_MODIFIED, unchanged.getStatusCode(), url);
+            assertVaryAccept(unchanged);
+        }
+    }
+
+    @Test
+    void testClientETag_ShouldFollowCommittedChangesNotValues() {
+        String profitETag = get(clientUrl() + "/profit", MediaType.APPLICATION_JSON, null).getHeaders().getETag();
+        String ordersETag = get("/api/orders/clients/" + clientA.getId() + "/orders", MediaType.APPLICATION_JSON, null)
+                .getHeaders().getETag();
+
+        assertEquals(HttpStatus.OK, createOrder("etag-a-to-b", clientA, clientB).getStatusCode());
+        assertEquals(HttpStatus.OK, createOrder("etag-b-to-a", clientB, clientA).getStatusCode());
+
+        // The profit is back where it started, but the validators follow the committed changes, not the values.
+        ResponseEntity<byte[]> profit = get(clientUrl() + "/profit", MediaType.APPLICATION_JSON, profitETag);
+        assertEquals(HttpStatus.OK, profit.getStatusCode(), "A stale profit ETag should not be answered with 304");
+        assertNotEquals(profitETag, profit.getHeaders().getETag(), "The profit ETag should change with every order");
+        assertEquals(HttpStatus.NOT_MODIFIED, get(clientUrl() + "/profit", MediaType.APPLICATION_JSON,
+                profit.getHeaders().getETag()).getStatusCode(), "The current profit ETag should be answered with 304");
+        assertEquals(HttpStatus.OK, get("/api/orders/clients/" + clientA.getId() + "/orders", MediaType.APPLICATION_JSON,
+                ordersETag).getStatusCode(), "A stale order list ETag should not be answered with 304");
+    }
+
+    @Test
+    void testFormats_ShouldShareWeakETagAndVaryByAccept() {
+        ResponseEntity<byte[]> json = get(clientUrl(), MediaType.APPLICATION_JSON, null);
+        ResponseEntity<byte[]> cbor = get(clientUrl(), CBOR, null);
+        ResponseEntity<byte[]> smile = get(clientUrl(), SMILE, null);
+
+        assertTrue(CBOR.isCompatibleWith(cbor.getHeaders().getContentType()));
+        assertTrue(SMILE.isCompatibleWith(smile.getHeaders().getContentType()));
+        assertNotEquals(new String(json.getBody()), new String(cbor.getBody()), "The bodies should differ by format");
+        assertEquals(json.getHeaders().getETag(), cbor.getHeaders().getETag());
+        assertEquals(json.getHeaders().getETag(), smile.getHeaders().getETag());
+        assertTrue(json.getHeaders().getETag().startsWith("W/"),
+                "Different bodies under one validator are only allowed for a weak ETag");
+        assertVaryAccept(cbor);
+        assertVaryAccept(smile);
+        assertEquals(HttpStatus.NOT_MODIFIED, get(clientUrl(), CBOR, json.getHeaders().getETag()).getStatusCode(),
+                "A weak match answers any format");
+    }
+
+    @Test
+    void testClientSideTable_ShouldCarryNoETagButVaryByAccept() {
+        ResponseEntity<byte[]> response = get("/api/orders/clients/" + clientA.getId() + "/orders?view=compact&include=clients",
+                MediaType.APPLICATION_JSON, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+        assertVaryAccept(response);
+    }
+
+    private static void assertVaryAccept(ResponseEntity<?> response) {
+        assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary(),
+                "Vary should name Accept exactly once, was " + response.getHeaders().get(HttpHeaders.VARY));
+    }
+
+    private ResponseEntity<byte[]> get(String url, MediaType accept, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(accept));
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    private String clientUrl() {
+        return "/api/clients/" + clientA.getId();
+    }
+
+    private ResponseEntity<String> createOrder(String name, Client from, Client to) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName(name);
+        request.setSupplierId(from.getId());
+        request.setConsumerId(to.getId());
+        request.setPrice(new BigDecimal("10.00"));
+        return restTemplate.postForEntity("/api/orders", request, String.class);
+    }
+
+    private Client createClient(String name, String email) {
+        return clientRepository.save(Client.builder()
+                .name(name)
+                .email(email)
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.dataox.integration;
+
+import org.springframework.test.context.TestPropertySource;
+
+@TestPropertySource(properties = "orders.write-strategy=conditional-update")
+class ConditionalUpdateConcurrentIdenticalOrdersIntegrationTest extends ConcurrentIdenticalOrdersIntegrationTest {
+}
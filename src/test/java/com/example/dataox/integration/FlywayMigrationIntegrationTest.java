@@ -0,0 +1,94 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Builds the schema with the Flyway migrations instead of Hibernate, on a database of its own, and lets
+ * Hibernate validate the result. The seed rows of {@code V2} exercise the backfills and id sequences of
+ * the later migrations.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flyway;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class FlywayMigrationIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void testMigrations_ShouldBuildSchemaHibernateAccepts() {
+        assertEquals(0, flyway.info().pending().length, "Every migration should be applied");
+        assertEquals("7", flyway.info().current().getVersion().getVersion(), "The latest migration should be V7");
+
+        // Other tests of this class add rows of their own, always above the seed ids.
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clients WHERE id <= 3", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE id <= 3", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM clients WHERE id <= 3 AND (version <> 0 OR order_version <> 0 OR profit_shards <> 0)", Integer.class),
+                "New client columns should be filled with their defaults");
+    }
+
+    @Test
+    void testStatsBackfill_ShouldMatchSeedOrders() {
+        // John (1) sold 100.50 and 300.25 and bought 200.75 in the seed orders.
+        assertEquals(0, new BigDecimal("400.75").compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(sold) FROM client_order_stats WHERE client_id = 1", BigDecimal.class)));
+        assertEquals(0, new BigDecimal("200.75").compareTo(jdbcTemplate.queryForObject(
+                "SELECT SUM(bought) FROM client_order_stats WHERE client_id = 1", BigDecimal.class)));
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT SUM(orders_bought) FROM client_order_stats WHERE client_id <= 3", Integer.class), "Every seed order should be counted once");
+    }
+
+    @Test
+    void testIdSequences_ShouldStartAboveSeedRows() {
+        ClientRequest clientRequest = new ClientRequest();
+        clientRequest.setName("Migrated Client");
+        clientRequest.setEmail("migrated-client@example.com");
+        clientRequest.setActive(true);
+        ResponseEntity<Client> client = restTemplate.postForEntity("/api/clients", clientRequest, Client.class);
+        assertEquals(HttpStatus.OK, client.getStatusCode());
+        assertTrue(client.getBody().getId() > 3, "Hibernate ids should not collide with the seed rows");
+
+        // Plain SQL inserts draw from the same sequence as Hibernate.
+        jdbcTemplate.update("INSERT INTO clients (name, email) VALUES ('Sql Client', 'sql-client@example.com')");
+        Long sqlId = jdbcTemplate.queryForObject("SELECT id FROM clients WHERE email = 'sql-client@example.com'", Long.class);
+        assertTrue(sqlId > client.getBody().getId(), "SQL inserts should not reuse ids handed out to Hibernate");
+
+        OrderCreateRequest orderRequest = new OrderCreateRequest();
+        orderRequest.setName("migrated-order");
+        orderRequest.setSupplierId(sqlId);
+        orderRequest.setConsumerId(client.getBody().getId());
+        orderRequest.setPrice(new BigDecimal("10.00"));
+        ResponseEntity<Order> order = restTemplate.postForEntity("/api/orders", orderRequest, Order.class);
+        assertEquals(HttpStatus.OK, order.getStatusCode(), "Orders should be stored in the migrated schema");
+        assertTrue(order.getBody().getId() > 3, "Order ids should not collide with the seed rows");
+    }
+}
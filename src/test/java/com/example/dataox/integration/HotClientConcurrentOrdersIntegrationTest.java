@@ -0,0 +1,130 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class HotClientConcurrentOrdersIntegrationTest {
+    private static final int SUPPLIERS = 30;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private Client consumer;
+    private List<Client> suppliers;
+
+    @BeforeEach
+    void setUp() {
+        consumer = createClient("Hot Consumer", "hot-consumer@example.com");
+        suppliers = new ArrayList<>();
+        for (int i = 0; i < SUPPLIERS; i++) {
+            suppliers.add(createClient("Supplier " + i, "supplier" + i + "@example.com"));
+        }
+
+        ResponseEntity<Client> promoted = restTemplate.postForEntity(
+                "/api/clients/" + consumer.getId() + "/hot?shards=8", null, Client.class);
+        assertTrue(promoted.getStatusCode().is2xxSuccessful(), "Consumer should be promoted");
+        assertEquals(8, clientRepository.findById(consumer.getId()).orElseThrow().getProfitShards());
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testConcurrentOrdersOfHotConsumer_ShouldStopExactlyAtThreshold() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(SUPPLIERS);
+        CountDownLatch latch = new CountDownLatch(SUPPLIERS);
+        AtomicInteger successCount = new AtomicInteger(0);
+        AtomicInteger errorCount = new AtomicInteger(0);
+
+        for (Client supplier : suppliers) {
+            OrderCreateRequest request = new OrderCreateRequest();
+            request.setName("hot-consumer-order");
+            request.setSupplierId(supplier.getId());
+            request.setConsumerId(consumer.getId());
+            request.setPrice(new BigDecimal("100"));
+
+            executor.submit(() -> {
+                try {
+                    ResponseEntity<Order> response = restTemplate.postForEntity("/api/orders", request, Order.class);
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        successCount.incrementAndGet();
+                    } else {
+                        errorCount.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    errorCount.incrementAndGet();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+
+        assertTrue(latch.await(60, TimeUnit.SECONDS), "Requests did not finish in time");
+        executor.shutdown();
+
+        assertEquals(10, successCount.get(), "Exactly ten orders fit into the consumer's headroom");
+        assertEquals(20, errorCount.get(), "Twenty requests should be rejected");
+        assertEquals(10, orderRepository.count());
+
+        BigDecimal consumerProfit = restTemplate.getForObject(
+                "/api/clients/" + consumer.getId() + "/profit", BigDecimal.class);
+        assertEquals(0, consumerProfit.compareTo(new BigDecimal("-1000")),
+                "Consumer profit should be exactly -1000, but was: " + consumerProfit);
+
+        Client[] atFloor = restTemplate.getForObject("/api/clients/by-profit?min=-1000&max=-1000", Client[].class);
+        assertEquals(1, atFloor.length, "Only the consumer should be at the floor");
+        assertEquals(consumer.getId(), atFloor[0].getId());
+
+        BigDecimal suppliersProfit = clientRepository.findAllById(suppliers.stream().map(Client::getId).toList()).stream()
+                .map(client -> client.getProfit().toBigDecimal())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, suppliersProfit.compareTo(new BigDecimal("1000")),
+                "Suppliers should have earned 1000 in total, but earned: " + suppliersProfit);
+    }
+
+    private Client createClient(String name, String email) {
+        ClientRequest request = new ClientRequest();
+        request.setName(name);
+        request.setEmail(email);
+        request.setActive(true);
+        return restTemplate.postForEntity("/api/clients", request, Client.class).getBody();
+    }
+}
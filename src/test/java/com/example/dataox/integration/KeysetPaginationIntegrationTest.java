@@ -0,0 +1,179 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.KeysetPage;
+import com.example.dataox.dto.OrderView;
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class KeysetPaginationIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> clientIds = new ArrayList<>();
+    private final List<Long> orderIds = new ArrayList<>();
+    private final List<Long> firstClientOrderIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            clientIds.add(clientRepository.save(Client.builder()
+                    .name("Paged Client " + i)
+                    .email("paged-client-" + i + "@example.com")
+                    .profit(Money.ZERO)
+                    .active(true)
+                    .build()).getId());
+        }
+        // Seven orders around the ring of clients; the first client is supplier of one and consumer of another.
+        for (int i = 0; i < 7; i++) {
+            Long supplierId = clientIds.get(i % 5);
+            Long consumerId = clientIds.get((i + 1) % 5);
+            Order order = orderRepository.save(Order.builder()
+                    .name("paged-order-" + i)
+                    .supplier(clientRepository.getReferenceById(supplierId))
+                    .consumer(clientRepository.getReferenceById(consumerId))
+                    .price(Money.of(10))
+                    .build());
+            orderIds.add(order.getId());
+            if (supplierId.equals(clientIds.get(0)) || consumerId.equals(clientIds.get(0))) {
+                firstClientOrderIds.add(order.getId());
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+        clientIds.clear();
+        orderIds.clear();
+        firstClientOrderIds.clear();
+    }
+
+    @Test
+    void testClientPages_ShouldWalkAllClientsInIdOrder() {
+        List<Long> seen = new ArrayList<>();
+        Long after = null;
+        int pages = 0;
+        do {
+            KeysetPage<Client> page = getPage("/api/clients?limit=2" + (after == null ? "" : "&after=" + after),
+                    new ParameterizedTypeReference<>() { });
+            page.getItems().forEach(client -> seen.add(client.getId()));
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+
+        assertEquals(clientIds, seen, "Pages should hold every client once, in id order");
+        assertEquals(3, pages, "Five clients should take three pages of two");
+    }
+
+    @Test
+    void testOrderPages_ShouldEndWithEmptyPageWhenLastPageIsFull() {
+        KeysetPage<OrderView> first = getPage("/api/orders?limit=4", new ParameterizedTypeReference<>() { });
+        assertEquals(orderIds.subList(0, 4), first.getItems().stream().map(OrderView::getId).toList());
+        assertEquals(orderIds.get(3), first.getNextCursor(), "The cursor should be the last id of the page");
+
+        KeysetPage<OrderView> second = getPage("/api/orders?limit=3&after=" + first.getNextCursor(), new ParameterizedTypeReference<>() { });
+        assertEquals(orderIds.subList(4, 7), second.getItems().stream().map(OrderView::getId).toList());
+
+        // A full page cannot tell whether more rows follow, so the next one comes back empty.
+        KeysetPage<OrderView> third = getPage("/api/orders?limit=3&after=" + second.getNextCursor(), new ParameterizedTypeReference<>() { });
+        assertEquals(List.of(), third.getItems());
+        assertNull(third.getNextCursor(), "An empty page should have no next cursor");
+    }
+
+    @Test
+    void testClientOrderPages_ShouldHoldOnlyTheClientsOrders() {
+        KeysetPage<OrderView> first = getPage("/api/orders/clients/" + clientIds.get(0) + "/orders?limit=2",
+                new ParameterizedTypeReference<>() { });
+        KeysetPage<OrderView> second = getPage("/api/orders/clients/" + clientIds.get(0) + "/orders?limit=2&after=" + first.getNextCursor(),
+                new ParameterizedTypeReference<>() { });
+
+        List<Long> seen = new ArrayList<>();
+        first.getItems().forEach(order -> seen.add(order.getId()));
+        second.getItems().forEach(order -> seen.add(order.getId()));
+        assertEquals(firstClientOrderIds, seen, "Orders as supplier and as consumer should be merged in id order");
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void testLimit_ShouldBeValidated() {
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity("/api/orders?limit=0", String.class).getStatusCode());
+        ResponseEntity<String> tooLarge = restTemplate.getForEntity("/api/clients?limit=1001", String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, tooLarge.getStatusCode());
+        assertTrue(tooLarge.getBody().contains("Limit must be between 1 and 1000"), "Unexpected body: " + tooLarge.getBody());
+    }
+
+    @Test
+    void testNdjson_ShouldWriteOneObjectPerLine() throws Exception {
+        assertEquals(orderIds, idsOf(getNdjson("/api/orders")), "Every order should be streamed in id order");
+        assertEquals(clientIds, idsOf(getNdjson("/api/clients")), "Every client should be streamed in id order");
+        assertEquals(firstClientOrderIds, idsOf(getNdjson("/api/orders/clients/" + clientIds.get(0) + "/orders")),
+                "Only the client's orders should be streamed");
+    }
+
+    private <T> KeysetPage<T> getPage(String url, ParameterizedTypeReference<KeysetPage<T>> type) {
+        ResponseEntity<KeysetPage<T>> response = restTemplate.exchange(url, HttpMethod.GET, null, type);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        return response.getBody();
+    }
+
+    private ResponseEntity<String> getNdjson(String url) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(MediaType.APPLICATION_NDJSON.isCompatibleWith(response.getHeaders().getContentType()),
+                "Unexpected content type: " + response.getHeaders().getContentType());
+        return response;
+    }
+
+    private List<Long> idsOf(ResponseEntity<String> ndjson) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (String line : ndjson.getBody().split("\n")) {
+            JsonNode node = objectMapper.readTree(line);
+            ids.add(node.get("id").asLong());
+        }
+        return ids;
+    }
+}
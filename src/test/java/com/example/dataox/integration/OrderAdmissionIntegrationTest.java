@@ -0,0 +1,141 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.services.OrderAdmission;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Orders above an admission limit are answered with 429 and a {@code Retry-After} of the time the orders in
+ * flight need to drain. The slots are taken by permits the test holds, so the backlog is exact.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.delay.min=10ms",
+        "orders.delay.max=10ms",
+        "orders.admission.max-in-flight=6",
+        "orders.admission.max-in-flight-per-client=3",
+        "orders.admission.max-in-flight-per-pair=2",
+        "orders.admission.max-concurrent-transactions=2"
+})
+class OrderAdmissionIntegrationTest {
+    private static final int CONCURRENCY = 2;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderAdmission orderAdmission;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Client> clients = new ArrayList<>();
+    private final List<OrderAdmission.Permit> permits = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 8; i++) {
+            clients.add(clientRepository.save(Client.builder()
+                    .name("Admitted Client " + i)
+                    .email("admitted-" + i + "@example.com")
+                    .profit(Money.ZERO)
+                    .active(true)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        permits.forEach(OrderAdmission.Permit::close);
+        permits.clear();
+        TestDatabase.clear(context);
+        clients.clear();
+    }
+
+    @Test
+    void testPairLimit_ShouldRejectWithRetryAfterOfBacklog() {
+        hold(0, 1);
+        hold(1, 0);
+
+        assertThrottled(createOrder(0, 1), "pair", 2);
+        assertEquals(HttpStatus.OK, createOrder(0, 2).getStatusCode(), "Other pairs of the client should still be admitted");
+    }
+
+    @Test
+    void testClientLimit_ShouldRejectWithRetryAfterOfBacklog() {
+        hold(0, 1);
+        hold(0, 2);
+        hold(3, 0);
+
+        assertThrottled(createOrder(4, 0), "client", 3);
+        assertEquals(HttpStatus.OK, createOrder(4, 5).getStatusCode(), "Other clients should still be admitted");
+    }
+
+    @Test
+    void testGlobalLimit_ShouldRejectWithRetryAfterOfBacklog() {
+        hold(0, 1);
+        hold(2, 3);
+        hold(4, 5);
+        hold(0, 2);
+        hold(1, 3);
+        hold(4, 6);
+
+        assertThrottled(createOrder(6, 7), "global", 6);
+
+        permits.remove(0).close();
+        assertEquals(HttpStatus.OK, createOrder(6, 7).getStatusCode(), "A freed slot should admit the next order");
+    }
+
+    private void assertThrottled(ResponseEntity<String> response, String scope, int backlog) {
+        double holdSeconds = meterRegistry.get("orders.admission.average_hold").gauge().value();
+        long expected = Math.max(1, (long) Math.ceil(holdSeconds * backlog / CONCURRENCY));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertTrue(response.getBody().contains(scope + " limit"), "Unexpected body: " + response.getBody());
+        assertEquals(String.valueOf(expected), response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER),
+                "Retry-After should cover " + backlog + " orders of " + holdSeconds + "s through " + CONCURRENCY + " slots");
+        assertTrue(meterRegistry.get("orders.admission.rejected").tag("scope", scope).counter().count() >= 1);
+    }
+
+    private void hold(int supplier, int consumer) {
+        permits.add(orderAdmission.admit(clients.get(supplier).getId(), clients.get(consumer).getId()));
+    }
+
+    private ResponseEntity<String> createOrder(int supplier, int consumer) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName("admitted-order-" + supplier + "-" + consumer);
+        request.setSupplierId(clients.get(supplier).getId());
+        request.setConsumerId(clients.get(consumer).getId());
+        request.setPrice(new BigDecimal("10.00"));
+        return restTemplate.postForEntity("/api/orders", request, String.class);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderBatchItemResult;
+import com.example.dataox.dto.OrderBatchItemStatus;
+import com.example.dataox.dto.OrderBatchResult;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import com.example.dataox.services.OrderTransactionalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.delay.min=10ms",
+        "orders.delay.max=10ms",
+        "orders.batch.max-size=5"
+})
+class OrderBatchIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderTransactionalService orderTransactionalService;
+
+    private Client clientA;
+    private Client clientB;
+    private Client clientC;
+
+    @BeforeEach
+    void setUp() {
+        clientA = createClient("Batch Client A", "batch-a@example.com", true);
+        clientB = createClient("Batch Client B", "batch-b@example.com", true);
+        clientC = createClient("Batch Client C", "batch-c@example.com", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testBatch_ShouldCreateValidOrdersAndRejectTheRest() {
+        Client inactive = createClient("Batch Inactive", "batch-inactive@example.com", false);
+        List<OrderCreateRequest> batch = List.of(
+                order("batch-ok", clientA, clientB, "600.00"),
+                order("batch-free", clientA, clientB, "0"),
+                order("batch-ok", clientA, clientB, "1.00"),
+                // Checked against the balance left by the first item: B would reach -1100.
+                order("batch-over-floor", clientC, clientB, "500.00"),
+                order("batch-inactive", clientA, inactive, "1.00"));
+
+        ResponseEntity<OrderBatchResult> response = restTemplate.postForEntity("/api/orders/batch", batch, OrderBatchResult.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        OrderBatchResult result = response.getBody();
+        assertEquals(1, result.getCreated());
+        assertEquals(4, result.getRejected());
+        List<OrderBatchItemResult> items = result.getResults();
+        assertEquals(List.of(0, 1, 2, 3, 4), items.stream().map(OrderBatchItemResult::getIndex).toList(),
+                "Results should follow the submitted order");
+
+        assertEquals(OrderBatchItemStatus.CREATED, items.get(0).getStatus());
+        assertNotNull(items.get(0).getOrderId());
+        assertNull(items.get(1).getOrderId());
+        assertEquals("Price must be greater than zero", items.get(1).getReason());
+        assertEquals("Order cannot be created: constraint violation (possible duplicate business key)", items.get(2).getReason());
+        assertEquals("Creating this order would make consumer's total profit less than -1000", items.get(3).getReason());
+        assertEquals("Consumer is inactive", items.get(4).getReason());
+
+        assertEquals(1, orderRepository.count(), "Only the accepted order should be stored");
+        assertEquals(0, new BigDecimal("600.00").compareTo(profitOf(clientA)));
+        assertEquals(0, new BigDecimal("-600.00").compareTo(profitOf(clientB)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(clientC)), "Rejected orders should not move profits");
+    }
+
+    @Test
+    void testBatch_ShouldRejectEmptyAndOversizedBatches() {
+        ResponseEntity<String> empty = restTemplate.postForEntity("/api/orders/batch", List.of(), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, empty.getStatusCode());
+        assertTrue(empty.getBody().contains("Order batch must contain at least one order"), "Unexpected body: " + empty.getBody());
+
+        List<OrderCreateRequest> oversized = List.of(
+                order("batch-1", clientA, clientB, "1.00"),
+                order("batch-2", clientA, clientB, "1.00"),
+                order("batch-3", clientA, clientB, "1.00"),
+                order("batch-4", clientA, clientB, "1.00"),
+                order("batch-5", clientA, clientB, "1.00"),
+                order("batch-6", clientA, clientB, "1.00"));
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/orders/batch", oversized, String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertTrue(response.getBody().contains("Order batch must not contain more than 5 orders"),
+                "Unexpected body: " + response.getBody());
+        assertEquals(0, orderRepository.count(), "No order of an oversized batch should be stored");
+    }
+
+    @Test
+    void testBatches_ShouldLockClientsInIdOrderWithoutStripes() throws InterruptedException {
+        // Calls the transaction directly, so only the row lock order keeps overlapping batches from deadlocking.
+        int batches = 12;
+        ExecutorService executor = Executors.newFixedThreadPool(batches);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(batches);
+        List<Throwable> failures = new CopyOnWriteArrayList<>();
+
+        for (int i = 0; i < batches; i++) {
+            Map<Integer, OrderCreateRequest> batch = new LinkedHashMap<>();
+            // Each batch names the three clients in a different order.
+            if (i % 2 == 0) {
+                batch.put(0, order("c-to-b-" + i, clientC, clientB, "10.00"));
+                batch.put(1, order("b-to-a-" + i, clientB, clientA, "10.00"));
+            } else {
+                batch.put(0, order("a-to-b-" + i, clientA, clientB, "10.00"));
+                batch.put(1, order("b-to-c-" + i, clientB, clientC, "10.00"));
+            }
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    orderTransactionalService.saveOrderBatch(LocalDateTime.now(), batch);
+                } catch (Throwable e) {
+                    failures.add(e);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        start.countDown();
+
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "Batches did not finish in time");
+        executor.shutdown();
+
+        assertEquals(List.of(), failures, "No batch should fail with a deadlock or lock timeout");
+        assertEquals(batches * 2, orderRepository.count(), "Every order should be persisted");
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(clientA)), "Client A profit should net out to zero");
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(clientB)), "Client B profit should net out to zero");
+        assertEquals(0, BigDecimal.ZERO.compareTo(profitOf(clientC)), "Client C profit should net out to zero");
+    }
+
+    private Client createClient(String name, String email, boolean active) {
+        return clientRepository.save(Client.builder()
+                .name(name)
+                .email(email)
+                .profit(Money.ZERO)
+                .active(active)
+                .build());
+    }
+
+    private static OrderCreateRequest order(String name, Client supplier, Client consumer, String price) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName(name);
+        request.setSupplierId(supplier.getId());
+        request.setConsumerId(consumer.getId());
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+
+    private BigDecimal profitOf(Client client) {
+        return clientRepository.findById(client.getId())
+                .orElseThrow(() -> new IllegalStateException("Client not found in DB"))
+                .getProfit()
+                .toBigDecimal();
+    }
+}
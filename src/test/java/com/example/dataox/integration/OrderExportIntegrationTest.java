@@ -0,0 +1,210 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CSV exports of orders and of the per-client profit statement, with and without a client filter, checked
+ * against the NDJSON stream of the same client's orders.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class OrderExportIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Client alpha;
+    private Client beta;
+    private Client gamma;
+    private Client idle;
+    private final List<Order> orders = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        alpha = createClient("Alpha, Ltd", "export-alpha@example.com");
+        beta = createClient("Beta", "export-beta@example.com");
+        gamma = createClient("Gamma", "export-gamma@example.com");
+        idle = createClient("Idle", "export-idle@example.com");
+        orders.add(createOrder("alpha-to-beta", alpha, beta, 100));
+        orders.add(createOrder("beta-to-alpha", beta, alpha, 40));
+        orders.add(createOrder("beta-to-gamma", beta, gamma, 300));
+        orders.add(createOrder("gamma-to-beta", gamma, beta, 25));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+        orders.clear();
+    }
+
+    @Test
+    void testOrderExport_ShouldListMatchingOrdersInIdOrder() {
+        List<String[]> all = csv(get("/api/orders/export"));
+        assertEquals("id,name,supplier_id,supplier_name,consumer_id,consumer_name,price,start_time,end_time,created_at",
+                String.join(",", all.get(0)));
+        assertEquals(ids(orders), column(all, 0));
+
+        List<String[]> expensive = csv(get("/api/orders/export?minPrice=40&maxPrice=100"));
+        assertEquals(List.of(orders.get(0).getId(), orders.get(1).getId()), column(expensive, 0),
+                "Both price bounds should be inclusive");
+
+        Order selfTrade = createOrder("alpha-self", alpha, alpha, 10);
+        List<String[]> alphaOrders = csv(get("/api/orders/export?clientId=" + alpha.getId()));
+        assertEquals(List.of(orders.get(0).getId(), orders.get(1).getId(), selfTrade.getId()), column(alphaOrders, 0),
+                "A client's orders in both directions should be listed once each");
+        assertEquals(ndjsonIds("/api/orders/clients/" + alpha.getId() + "/orders"), column(alphaOrders, 0),
+                "The export should hold the same orders as the client's NDJSON stream");
+    }
+
+    @Test
+    void testOrderExport_ShouldQuoteFieldsAndCompressOnRequest() throws Exception {
+        String plain = get("/api/orders/export?clientId=" + alpha.getId());
+        assertTrue(plain.contains(",\"Alpha, Ltd\","), "Names with commas should be quoted: " + plain);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> compressed = restTemplate.exchange("/api/orders/export?clientId=" + alpha.getId(),
+                HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+        assertEquals("gzip", compressed.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.getBody()))) {
+            assertEquals(plain, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testProfitReport_ShouldSumIncomeAndExpensePerClient() {
+        List<String[]> report = csv(get("/api/orders/export/client-profits"));
+        assertEquals("client_id,name,email,active,orders,income,expense,net,profit", String.join(",", report.get(0)));
+        assertEquals(List.of(alpha.getId(), beta.getId(), gamma.getId(), idle.getId()), column(report, 0),
+                "Every client should be reported, in id order");
+        assertRow(report.get(1), 2, "100", "40");
+        assertRow(report.get(2), 4, "340", "125");
+        assertRow(report.get(3), 2, "25", "300");
+        assertRow(report.get(4), 0, "0", "0");
+    }
+
+    @Test
+    void testProfitReport_ForOneClient_ShouldSumOnlyItsOrders() {
+        List<String[]> beta = csv(get("/api/orders/export/client-profits?clientId=" + this.beta.getId()));
+        assertEquals(2, beta.size(), "Only the filtered client should be reported");
+        assertEquals(this.beta.getId(), Long.valueOf(beta.get(1)[0]));
+        assertRow(beta.get(1), 4, "340", "125");
+
+        List<String[]> filtered = csv(get("/api/orders/export/client-profits?clientId=" + this.beta.getId() + "&minPrice=50"));
+        assertRow(filtered.get(1), 2, "300", "100");
+
+        List<String[]> idle = csv(get("/api/orders/export/client-profits?clientId=" + this.idle.getId()));
+        assertRow(idle.get(1), 0, "0", "0");
+    }
+
+    @Test
+    void testExports_ShouldValidateFilters() {
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                "/api/orders/export?minPrice=10&maxPrice=5", String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, restTemplate.getForEntity(
+                "/api/orders/export/client-profits?from=2024-02-01T00:00:00&to=2024-01-01T00:00:00", String.class).getStatusCode());
+    }
+
+    private static void assertRow(String[] row, long orders, String income, String expense) {
+        assertEquals(orders, Long.parseLong(row[4]), "orders of " + Arrays.toString(row));
+        assertEquals(0, new BigDecimal(income).compareTo(new BigDecimal(row[5])), "income of " + Arrays.toString(row));
+        assertEquals(0, new BigDecimal(expense).compareTo(new BigDecimal(row[6])), "expense of " + Arrays.toString(row));
+        assertEquals(0, new BigDecimal(income).subtract(new BigDecimal(expense)).compareTo(new BigDecimal(row[7])),
+                "net of " + Arrays.toString(row));
+    }
+
+    private String get(String url) {
+        ResponseEntity<String> response = restTemplate.getForEntity(url, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode(), response.getBody());
+        assertTrue(MediaType.parseMediaType("text/csv").isCompatibleWith(response.getHeaders().getContentType()));
+        return response.getBody();
+    }
+
+    private List<Long> ndjsonIds(String url) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        String body = restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody();
+        List<Long> ids = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            try {
+                ids.add(objectMapper.readTree(line).get("id").asLong());
+            } catch (Exception e) {
+                throw new AssertionError("Malformed NDJSON line: " + line, e);
+            }
+        }
+        return ids;
+    }
+
+    /** Splits the CSV into rows of fields; a quoted field keeps its quotes, which none of the ids contain. */
+    private static List<String[]> csv(String body) {
+        return Arrays.stream(body.split("\r\n")).map(line -> line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)")).toList();
+    }
+
+    private static List<Long> column(List<String[]> rows, int index) {
+        return rows.stream().skip(1).map(row -> Long.valueOf(row[index])).toList();
+    }
+
+    private static List<Long> ids(List<Order> orders) {
+        return orders.stream().map(Order::getId).toList();
+    }
+
+    private Client createClient(String name, String email) {
+        return clientRepository.save(Client.builder()
+                .name(name)
+                .email(email)
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+    }
+
+    private Order createOrder(String name, Client from, Client to, int price) {
+        return orderRepository.save(Order.builder()
+                .name(name)
+                .supplier(from)
+                .consumer(to)
+                .price(Money.of(price))
+                .build());
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Subscribes to the change feed of one client while concurrent orders push the other client to its profit
+ * floor, then checks that exactly the committed orders were announced and that a subscriber resuming
+ * with {@code Last-Event-ID} gets the events after it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class OrderFeedIntegrationTest {
+
+    private record FeedEvent(String id, String name, String data) {
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final List<HttpResponse<Stream<String>>> subscriptions = new ArrayList<>();
+
+    private Client supplier;
+    private Client consumer;
+
+    @BeforeEach
+    void setUp() {
+        supplier = clientRepository.save(Client.builder()
+                .name("Feed Supplier")
+                .email("feed-supplier@example.com")
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+        consumer = clientRepository.save(Client.builder()
+                .name("Feed Consumer")
+                .email("feed-consumer@example.com")
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(subscription -> subscription.body().close());
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testFeed_ShouldAnnounceExactlyTheCommittedOrders() throws Exception {
+        BlockingQueue<FeedEvent> events = subscribe(supplier.getId(), null);
+
+        // 100 each: the consumer reaches -1000 after 10 orders, so the other 10 are rejected.
+        int numberOfRequests = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfRequests);
+        CountDownLatch latch = new CountDownLatch(numberOfRequests);
+        AtomicInteger successCount = new AtomicInteger(0);
+        for (int i = 0; i < numberOfRequests; i++) {
+            OrderCreateRequest request = new OrderCreateRequest();
+            request.setName("feed-order-" + i);
+            request.setSupplierId(supplier.getId());
+            request.setConsumerId(consumer.getId());
+            request.setPrice(new BigDecimal("100.00"));
+            executor.submit(() -> {
+                try {
+                    ResponseEntity<Order> response = restTemplate.postForEntity("/api/orders", request, Order.class);
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        successCount.incrementAndGet();
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertTrue(latch.await(30, TimeUnit.SECONDS), "Requests did not finish in time");
+        executor.shutdown();
+        assertEquals(10, successCount.get(), "Orders should be accepted until the consumer reaches the floor");
+
+        // The supplier's feed carries each order and the supplier's side of its profit change.
+        List<FeedEvent> received = new ArrayList<>();
+        for (int i = 0; i < successCount.get() * 2; i++) {
+            FeedEvent event = events.poll(10, TimeUnit.SECONDS);
+            assertNotNull(event, "Every committed order should be announced, got only: " + received);
+            received.add(event);
+        }
+        assertNull(events.poll(500, TimeUnit.MILLISECONDS), "Rejected orders should not be announced");
+
+        Set<String> storedIds = orderRepository.findAll().stream()
+                .map(order -> "\"id\":" + order.getId() + ",")
+                .collect(Collectors.toSet());
+        List<FeedEvent> created = received.stream().filter(event -> event.name().equals("order-created")).toList();
+        assertEquals(storedIds.size(), created.size(), "One order-created event per stored order");
+        created.forEach(event -> assertEquals(1, storedIds.stream().filter(event.data()::contains).count(),
+                "Announced order should be stored: " + event.data()));
+        assertEquals(created.size(), received.stream()
+                .filter(event -> event.name().equals("profit-changed"))
+                .filter(event -> event.data().contains("\"clientId\":" + supplier.getId() + ","))
+                .count(), "One profit-changed event of the supplier per order");
+
+        BlockingQueue<FeedEvent> resumed = subscribe(null, received.get(0).id());
+        FeedEvent next = resumed.poll(10, TimeUnit.SECONDS);
+        assertNotNull(next, "A resumed subscription should replay the buffered events");
+        assertEquals(Long.parseLong(received.get(0).id()) + 1, Long.parseLong(next.id()),
+                "Replay should start right after Last-Event-ID");
+    }
+
+    private BlockingQueue<FeedEvent> subscribe(Long clientId, String lastEventId) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/feed"
+                        + (clientId == null ? "" : "?clientId=" + clientId)))
+                .header("Accept", "text/event-stream");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        // Headers arrive once the subscription is registered, so no event is missed after this returns.
+        HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode(), "Subscription should be accepted");
+        subscriptions.add(response);
+
+        BlockingQueue<FeedEvent> events = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> {
+            String[] fields = new String[3];
+            try {
+                response.body().forEach(line -> {
+                    if (line.startsWith("id:")) {
+                        fields[0] = line.substring(3);
+                    } else if (line.startsWith("event:")) {
+                        fields[1] = line.substring(6);
+                    } else if (line.startsWith("data:")) {
+                        fields[2] = line.substring(5);
+                    } else if (line.isEmpty() && fields[1] != null) {
+                        events.add(new FeedEvent(fields[0], fields[1], fields[2]));
+                        fields[0] = fields[1] = fields[2] = null;
+                    }
+                });
+            } catch (RuntimeException e) {
+                // The stream is closed when the test ends.
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+        return events;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.CompactOrder;
+import com.example.dataox.events.OrderCreatedEvent;
+import com.example.dataox.feed.OrderFeed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A subscriber that stops reading must not hold on to the only delivery thread: once its write blocks past
+ * the send timeout it is dropped, and the other subscribers keep getting events.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.feed.delivery-threads=1",
+        "orders.feed.send-timeout=500ms",
+        "orders.feed.buffer-size=200000"
+})
+class OrderFeedStallIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private OrderFeed orderFeed;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong orderIds = new AtomicLong();
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testStalledSubscriber_ShouldBeDroppedWithoutBlockingOthers() throws Exception {
+        double stallsBefore = stalls();
+        try (Socket stalled = new Socket()) {
+            // A tiny receive window that is never read fills up after a few events.
+            stalled.setReceiveBufferSize(1024);
+            stalled.connect(new InetSocketAddress("localhost", port));
+            OutputStream out = stalled.getOutputStream();
+            out.write(("GET /api/feed HTTP/1.1\r\nHost: localhost\r\nAccept: text/event-stream\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            awaitTrue(() -> subscribers() == 1, "The stalled subscription should be registered");
+
+            long deadline = System.currentTimeMillis() + 60_000;
+            while (stalls() == stallsBefore && System.currentTimeMillis() < deadline) {
+                for (int i = 0; i < 500; i++) {
+                    publishOrder();
+                }
+                Thread.sleep(50);
+            }
+            assertEquals(1, stalls() - stallsBefore, 0.0, "The subscriber that stopped reading should be dropped");
+            assertEquals(0, subscribers(), "The dropped subscription should no longer count as open");
+
+            // The only configured delivery thread is still blocked in the stalled write.
+            HttpResponse<Stream<String>> healthy = HttpClient.newHttpClient().send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/feed"))
+                            .header("Accept", "text/event-stream")
+                            .build(),
+                    HttpResponse.BodyHandlers.ofLines());
+            try {
+                BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+                Thread reader = new Thread(() -> {
+                    try {
+                        healthy.body().forEach(lines::add);
+                    } catch (RuntimeException e) {
+                        // The stream is closed when the test ends.
+                    }
+                });
+                reader.setDaemon(true);
+                reader.start();
+
+                publishOrder();
+                String line;
+                do {
+                    line = lines.poll(10, TimeUnit.SECONDS);
+                } while (line != null && !line.equals("event:order-created"));
+                assertEquals("event:order-created", line, "Other subscribers should still be served");
+            } finally {
+                healthy.body().close();
+            }
+        }
+    }
+
+    private void publishOrder() {
+        long id = orderIds.incrementAndGet();
+        orderFeed.onOrderCreated(new OrderCreatedEvent(CompactOrder.builder()
+                .id(id)
+                .name("stall-order-" + id + "-" + "x".repeat(500))
+                .supplierId(1L)
+                .consumerId(2L)
+                .price(new BigDecimal("10.00"))
+                .build()));
+    }
+
+    private double stalls() {
+        return meterRegistry.get("orders.feed.stalls").counter().count();
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("orders.feed.subscribers").gauge().value();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, String message) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, message);
+            Thread.sleep(50);
+        }
+    }
+}
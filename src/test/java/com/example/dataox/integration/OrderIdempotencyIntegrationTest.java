@@ -0,0 +1,167 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.delay.min=1s",
+        "orders.delay.max=1s"
+})
+class OrderIdempotencyIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Client supplier;
+    private Client consumer;
+
+    @BeforeEach
+    void setUp() {
+        supplier = createClient("Idempotent Supplier", "idempotent-supplier@example.com");
+        consumer = createClient("Idempotent Consumer", "idempotent-consumer@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testRetry_ShouldReplayStoredResponseWithoutDelay() {
+        ResponseEntity<Order> first = post("/api/orders", "replay-key", order("replayed-order", "100.00"), Order.class);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+
+        long start = System.nanoTime();
+        ResponseEntity<Order> retry = post("/api/orders", "replay-key", order("replayed-order", "100.00"), Order.class);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertEquals(first.getBody().getId(), retry.getBody().getId(), "A retry should get the stored order");
+        assertTrue(elapsedMillis < 1000, "A replay should not wait for the processing delay, took " + elapsedMillis + "ms");
+        assertEquals(1, orderRepository.count(), "The order should be created once");
+    }
+
+    @Test
+    void testRetry_ShouldAttachToRequestInFlight() throws Exception {
+        double attachedBefore = attachedCount();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<CompletableFuture<ResponseEntity<Order>>> requests = List.of(
+                    CompletableFuture.supplyAsync(() -> post("/api/orders", "in-flight-key", order("attached-order", "100.00"), Order.class), executor),
+                    CompletableFuture.supplyAsync(() -> post("/api/orders", "in-flight-key", order("attached-order", "100.00"), Order.class), executor),
+                    CompletableFuture.supplyAsync(() -> post("/api/orders", "in-flight-key", order("attached-order", "100.00"), Order.class), executor));
+
+            Long orderId = null;
+            for (CompletableFuture<ResponseEntity<Order>> request : requests) {
+                ResponseEntity<Order> response = request.get();
+                assertEquals(HttpStatus.OK, response.getStatusCode());
+                if (orderId == null) {
+                    orderId = response.getBody().getId();
+                }
+                assertEquals(orderId, response.getBody().getId(), "Concurrent retries should share the first request's order");
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, orderRepository.count(), "Concurrent retries should not create the order again");
+        assertEquals(2, attachedCount() - attachedBefore, 0.0, "Both retries should wait for the running request");
+    }
+
+    @Test
+    void testRetry_ShouldReplayRejections() {
+        ResponseEntity<String> first = post("/api/orders", "rejected-key", order("rejected-order", "1500.00"), String.class);
+        ResponseEntity<String> retry = post("/api/orders", "rejected-key", order("rejected-order", "1500.00"), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, first.getStatusCode());
+        assertEquals(first.getStatusCode(), retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody(), "A retry of a rejected order should get the same rejection");
+        assertEquals(0, orderRepository.count());
+    }
+
+    @Test
+    void testKeyReuse_ShouldBeRejectedForDifferentOrderOrView() {
+        assertEquals(HttpStatus.OK, post("/api/orders", "reused-key", order("first-order", "100.00"), String.class).getStatusCode());
+
+        ResponseEntity<String> differentOrder = post("/api/orders", "reused-key", order("second-order", "100.00"), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, differentOrder.getStatusCode());
+        assertTrue(differentOrder.getBody().contains("was already used for a different order or view"),
+                "Unexpected body: " + differentOrder.getBody());
+
+        // The stored response has the default shape, so it cannot answer a compact retry.
+        ResponseEntity<String> differentView = post("/api/orders?view=compact", "reused-key", order("first-order", "100.00"), String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, differentView.getStatusCode());
+
+        // Equal prices written differently are the same order.
+        assertEquals(HttpStatus.OK, post("/api/orders", "reused-key", order("first-order", "100"), String.class).getStatusCode());
+        assertEquals(1, orderRepository.count());
+    }
+
+    private Client createClient(String name, String email) {
+        return clientRepository.save(Client.builder()
+                .name(name)
+                .email(email)
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+    }
+
+    private OrderCreateRequest order(String name, String price) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName(name);
+        request.setSupplierId(supplier.getId());
+        request.setConsumerId(consumer.getId());
+        request.setPrice(new BigDecimal(price));
+        return request;
+    }
+
+    private double attachedCount() {
+        return meterRegistry.get("orders.idempotency").tag("result", "attached").counter().count();
+    }
+
+    private <T> ResponseEntity<T> post(String url, String key, OrderCreateRequest request, Class<T> type) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", key);
+        return restTemplate.postForEntity(url, new HttpEntity<>(request, headers), type);
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * HTTP load suite sweeping concurrency, request mix and client-pair skew. The processing delay keeps its
+ * 1-10 distribution but in milliseconds, so each scenario takes seconds. Every scenario prints throughput,
+ * latency percentiles, rejections, admission throttling (429) and error rate, then checks that no client
+ * ended below the profit floor, that profits still sum to zero and that every acknowledged order was stored.
+ * <p>
+ * Tagged {@code load} and excluded from the default build; run it with
+ * {@code mvn test -Dgroups=load -DexcludedGroups=none}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.delay.scale=0.001",
+        "spring.jpa.show-sql=false"
+})
+class OrderLoadIntegrationTest {
+    private static final int CLIENTS = 50;
+    private static final BigDecimal PROFIT_FLOOR = new BigDecimal("-1000");
+
+    enum Mix {
+        WRITE_HEAVY(80, 10),
+        READ_HEAVY(10, 70);
+
+        final int createPercent;
+        final int readPercent;
+
+        Mix(int createPercent, int readPercent) {
+            this.createPercent = createPercent;
+            this.readPercent = readPercent;
+        }
+    }
+
+    enum Skew {
+        HOT_PAIR,
+        UNIFORM
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private long[] clientIds;
+
+    static Stream<Arguments> scenarios() {
+        List<Arguments> scenarios = new ArrayList<>();
+        for (int concurrency : new int[]{10, 100, 1000}) {
+            for (Mix mix : Mix.values()) {
+                for (Skew skew : Skew.values()) {
+                    scenarios.add(Arguments.of(concurrency, mix, skew));
+                }
+            }
+        }
+        return scenarios.stream();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Created through the API so the search index, profit index and cache see them.
+        clientIds = new long[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            ClientRequest request = new ClientRequest();
+            request.setName("Load Client " + i);
+            request.setEmail("load" + i + "@example.com");
+            request.setAddress("Load Street " + i);
+            request.setActive(true);
+            clientIds[i] = restTemplate.postForEntity("/api/clients", request, Client.class).getBody().getId();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @ParameterizedTest(name = "concurrency={0}, mix={1}, skew={2}")
+    @MethodSource("scenarios")
+    void loadScenario(int concurrency, Mix mix, Skew skew) throws InterruptedException {
+        int totalRequests = Math.max(500, concurrency * 5);
+        long[] latencies = new long[totalRequests];
+        AtomicInteger nextRequest = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger throttled = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int worker = 0; worker < concurrency; worker++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    int index;
+                    while ((index = nextRequest.getAndIncrement()) < totalRequests) {
+                        long begin = System.nanoTime();
+                        try {
+                            ResponseEntity<String> response = send(index, mix, skew);
+                            if (response.getStatusCode().is2xxSuccessful()) {
+                                if (isCreate(index, mix)) {
+                                    created.incrementAndGet();
+                                }
+                            } else if (response.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                                throttled.incrementAndGet();
+                            } else if (response.getStatusCode().is4xxClientError()) {
+                                rejected.incrementAndGet();
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[index] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long runStart = System.nanoTime();
+        start.countDown();
+        assertTrue(done.await(5, TimeUnit.MINUTES), "Scenario did not finish in time");
+        double elapsedSeconds = (System.nanoTime() - runStart) / 1e9;
+        executor.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("[load] concurrency=%-4d mix=%-11s skew=%-8s requests=%d throughput=%.1f req/s "
+                        + "p50=%.1fms p95=%.1fms p99=%.1fms created=%d rejected=%d throttled=%d errorRate=%.2f%%%n",
+                concurrency, mix, skew, totalRequests, totalRequests / elapsedSeconds,
+                percentileMillis(latencies, 50), percentileMillis(latencies, 95), percentileMillis(latencies, 99),
+                created.get(), rejected.get(), throttled.get(), 100.0 * errors.get() / totalRequests);
+
+        List<Client> clients = clientRepository.findAll();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Client client : clients) {
+            BigDecimal profit = client.getProfit().toBigDecimal();
+            assertTrue(profit.compareTo(PROFIT_FLOOR) >= 0,
+                    "Client " + client.getId() + " profit should be >= -1000, but was: " + profit);
+            total = total.add(profit);
+        }
+        assertEquals(0, total.compareTo(BigDecimal.ZERO), "Profits should sum to zero, but was: " + total);
+        assertEquals(created.get(), orderRepository.count(), "Every acknowledged order should be stored");
+    }
+
+    private ResponseEntity<String> send(int index, Mix mix, Skew skew) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (isCreate(index, mix)) {
+            int supplier;
+            int consumer;
+            if (skew == Skew.HOT_PAIR) {
+                supplier = random.nextInt(2);
+                consumer = 1 - supplier;
+            } else {
+                supplier = random.nextInt(CLIENTS);
+                consumer = random.nextInt(CLIENTS - 1);
+                if (consumer >= supplier) {
+                    consumer++;
+                }
+            }
+            OrderCreateRequest request = new OrderCreateRequest();
+            request.setName("load-order-" + index);
+            request.setSupplierId(clientIds[supplier]);
+            request.setConsumerId(clientIds[consumer]);
+            request.setPrice(BigDecimal.valueOf(random.nextInt(1, 300)));
+            return restTemplate.postForEntity("/api/orders", request, String.class);
+        }
+
+        long clientId = clientIds[skew == Skew.HOT_PAIR ? random.nextInt(2) : random.nextInt(CLIENTS)];
+        if (index % 100 < mix.createPercent + mix.readPercent) {
+            return index % 2 == 0
+                    ? restTemplate.getForEntity("/api/clients/" + clientId + "/profit", String.class)
+                    : restTemplate.getForEntity("/api/orders/clients/" + clientId + "/orders?limit=20", String.class);
+        }
+        return restTemplate.getForEntity("/api/clients/search?name=Client " + random.nextInt(CLIENTS), String.class);
+    }
+
+    private static boolean isCreate(int index, Mix mix) {
+        return index % 100 < mix.createPercent;
+    }
+
+    private static double percentileMillis(long[] sortedNanos, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(rank, 0)] / 1e6;
+    }
+}
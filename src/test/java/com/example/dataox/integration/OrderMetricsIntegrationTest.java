@@ -0,0 +1,151 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.services.OrderMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Accepted and rejected orders are counted by outcome, their phases are timed, and both show up in the
+ * Prometheus scrape, which test contexts only export with {@link AutoConfigureObservability}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@AutoConfigureObservability(tracing = false)
+@TestPropertySource(properties = {
+        "orders.delay.min=10ms",
+        "orders.delay.max=10ms"
+})
+class OrderMetricsIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Client supplier;
+    private Client consumer;
+
+    @BeforeEach
+    void setUp() {
+        supplier = createClient("Metrics Supplier", "metrics-supplier@example.com");
+        consumer = createClient("Metrics Consumer", "metrics-consumer@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testOrders_ShouldBeCountedByOutcomeAndTimedByPhase() {
+        Map<OrderMetrics.Outcome, Double> outcomesBefore = outcomes();
+        Map<OrderMetrics.Phase, Long> phasesBefore = phaseCounts();
+
+        assertEquals(HttpStatus.OK, createOrder("metrics-order", "100.00").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, createOrder("metrics-order", "100.00").getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, createOrder("metrics-too-expensive", "1500.00").getStatusCode());
+
+        Map<OrderMetrics.Outcome, Double> outcomes = outcomes();
+        for (OrderMetrics.Outcome outcome : OrderMetrics.Outcome.values()) {
+            double expected = switch (outcome) {
+                case CREATED, DUPLICATE_KEY, THRESHOLD_REJECTED -> 1;
+                default -> 0;
+            };
+            assertEquals(expected, outcomes.get(outcome) - outcomesBefore.get(outcome), 0.0,
+                    "Unexpected count of outcome " + outcome);
+        }
+
+        Map<OrderMetrics.Phase, Long> phases = phaseCounts();
+        assertEquals(3, phases.get(OrderMetrics.Phase.PRECHECK) - phasesBefore.get(OrderMetrics.Phase.PRECHECK),
+                "Every attempt should be prechecked");
+        // Both rejections come from the precheck, so only the accepted order reaches the later phases.
+        for (OrderMetrics.Phase phase : new OrderMetrics.Phase[]{OrderMetrics.Phase.DELAY, OrderMetrics.Phase.STRIPE_WAIT,
+                OrderMetrics.Phase.ROW_LOCK, OrderMetrics.Phase.CHECK, OrderMetrics.Phase.INSERT, OrderMetrics.Phase.COMMIT}) {
+            assertEquals(1, phases.get(phase) - phasesBefore.get(phase), "Unexpected count of phase " + phase);
+        }
+    }
+
+    @Test
+    void testPrometheus_ShouldServeOrderMeters() {
+        assertEquals(HttpStatus.OK, createOrder("scraped-order", "100.00").getStatusCode());
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity("/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        String body = scrape.getBody();
+        for (String series : new String[]{
+                "orders_outcome_total{outcome=\"created\"}",
+                "orders_outcome_total{outcome=\"duplicate_key\"}",
+                "orders_phase_seconds_bucket{phase=\"insert\",le=",
+                "orders_phase_seconds_count{phase=\"commit\"}",
+                "orders_admission_in_flight"}) {
+            assertTrue(body.contains(series), "The scrape should list " + series);
+        }
+    }
+
+    private Map<OrderMetrics.Outcome, Double> outcomes() {
+        Map<OrderMetrics.Outcome, Double> counts = new EnumMap<>(OrderMetrics.Outcome.class);
+        for (OrderMetrics.Outcome outcome : OrderMetrics.Outcome.values()) {
+            counts.put(outcome, meterRegistry.get("orders.outcome")
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT)).counter().count());
+        }
+        return counts;
+    }
+
+    private Map<OrderMetrics.Phase, Long> phaseCounts() {
+        Map<OrderMetrics.Phase, Long> counts = new EnumMap<>(OrderMetrics.Phase.class);
+        for (OrderMetrics.Phase phase : OrderMetrics.Phase.values()) {
+            counts.put(phase, meterRegistry.get("orders.phase")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT)).timer().count());
+        }
+        return counts;
+    }
+
+    private ResponseEntity<String> createOrder(String name, String price) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName(name);
+        request.setSupplierId(supplier.getId());
+        request.setConsumerId(consumer.getId());
+        request.setPrice(new BigDecimal(price));
+        return restTemplate.postForEntity("/api/orders", request, String.class);
+    }
+
+    private Client createClient(String name, String email) {
+        return clientRepository.save(Client.builder()
+                .name(name)
+                .email(email)
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import com.example.dataox.index.OrderKeyFilter;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Orders that are certain to fail are rejected before the processing delay, and a stale cached client never
+ * turns away an order the transaction would accept.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "orders.delay.min=1s",
+        "orders.delay.max=1s"
+})
+class OrderPrecheckIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderKeyFilter orderKeyFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Client supplier;
+    private Client consumer;
+
+    @BeforeEach
+    void setUp() {
+        supplier = createClient("Precheck Supplier", "precheck-supplier@example.com", 0);
+        consumer = createClient("Precheck Consumer", "precheck-consumer@example.com", 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testKeyFilter_ShouldHaveNoFalseNegatives() {
+        int keys = 20_000;
+        for (int i = 0; i < keys; i++) {
+            orderKeyFilter.add("filter-order-" + i, (long) i, (long) (keys - i));
+        }
+        for (int i = 0; i < keys; i++) {
+            assertTrue(orderKeyFilter.mightContain("filter-order-" + i, (long) i, (long) (keys - i)),
+                    "An added key must always be reported: " + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < keys; i++) {
+            if (orderKeyFilter.mightContain("absent-order-" + i, (long) i, (long) (keys - i))) {
+                falsePositives++;
+            }
+        }
+        // Far below the expected keys, the configured 1% rate is an upper bound.
+        assertTrue(falsePositives < keys / 100, "Too many false positives: " + falsePositives);
+    }
+
+    @Test
+    void testCertainRejections_ShouldNotWaitForProcessingDelay() {
+        assertEquals(HttpStatus.OK, createOrder("precheck-order", supplier, "100.00").getStatusCode());
+
+        assertRejectedFast(createOrder("precheck-order", supplier, "100.00"), "duplicate business key");
+        assertRejectedFast(createOrder("precheck-floor", supplier, "1000.00"), "less than -1000");
+
+        Client unknown = Client.builder().id(Long.MAX_VALUE).build();
+        assertRejectedFast(createOrder("precheck-unknown", unknown, "10.00"), "Supplier not found");
+
+        restTemplate.delete("/api/clients/" + supplier.getId());
+        assertRejectedFast(createOrder("precheck-inactive", supplier, "10.00"), "Supplier is inactive");
+        assertEquals(1, orderRepository.count());
+    }
+
+    @Test
+    void testStaleCachedClients_ShouldNotRejectOrders() {
+        Client indebted = createClient("Precheck Indebted", "precheck-indebted@example.com", -950);
+        Client dormant = createClient("Precheck Dormant", "precheck-dormant@example.com", 0);
+        jdbcTemplate.update("UPDATE clients SET active = FALSE WHERE id = ?", dormant.getId());
+        restTemplate.getForEntity("/api/clients/" + indebted.getId(), String.class);
+        restTemplate.getForEntity("/api/clients/" + dormant.getId(), String.class);
+
+        // Changes behind the cache: the cached snapshots now reject what the stored clients allow.
+        jdbcTemplate.update("UPDATE clients SET profit = 0 WHERE id = ?", indebted.getId());
+        jdbcTemplate.update("UPDATE clients SET active = TRUE WHERE id = ?", dormant.getId());
+
+        assertEquals(HttpStatus.OK, createOrder("precheck-credited", supplier, indebted, "100.00").getStatusCode(),
+                "A stale balance should not reject the order");
+        assertEquals(HttpStatus.OK, createOrder("precheck-reactivated", dormant, consumer, "100.00").getStatusCode(),
+                "A stale inactive flag should not reject the order");
+    }
+
+    private void assertRejectedFast(ResponseEntity<String> response, String reason) {
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), response.getBody());
+        assertTrue(response.getBody().contains(reason), "Unexpected body: " + response.getBody());
+    }
+
+    private ResponseEntity<String> createOrder(String name, Client from, String price) {
+        return createOrder(name, from, consumer, price);
+    }
+
+    private ResponseEntity<String> createOrder(String name, Client from, Client to, String price) {
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName(name);
+        request.setSupplierId(from.getId());
+        request.setConsumerId(to.getId());
+        request.setPrice(new BigDecimal(price));
+        long start = System.nanoTime();
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/orders", request, String.class);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        if (response.getStatusCode() != HttpStatus.OK) {
+            assertTrue(elapsedMillis < 1000, "A pre-check rejection should not wait for the delay, took " + elapsedMillis + "ms");
+        }
+        return response;
+    }
+
+    private Client createClient(String name, String email, int profit) {
+        return clientRepository.save(Client.builder()
+                .name(name)
+                .email(email)
+                .profit(Money.of(profit))
+                .active(true)
+                .build());
+    }
+}
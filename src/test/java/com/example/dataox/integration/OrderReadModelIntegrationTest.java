@@ -0,0 +1,130 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * The order read endpoints answer from projection queries: counterparties appear as id and name, read
+ * through a join at query time instead of embedded client entities.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class OrderReadModelIntegrationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Client supplier;
+    private Client consumer;
+    private Client other;
+
+    @BeforeEach
+    void setUp() {
+        supplier = createClient("Read Supplier", "read-supplier@example.com");
+        consumer = createClient("Read Consumer", "read-consumer@example.com");
+        other = createClient("Read Other", "read-other@example.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testOrderById_ShouldReferenceCounterpartiesByIdAndName() throws Exception {
+        Order order = createOrder("read-order", supplier, consumer);
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/orders/" + order.getId(), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(supplier.getId(), body.get("supplierId").asLong());
+        assertEquals("Read Supplier", body.get("supplierName").asText());
+        assertEquals(consumer.getId(), body.get("consumerId").asLong());
+        assertEquals("Read Consumer", body.get("consumerName").asText());
+        assertEquals(0, body.get("price").decimalValue().compareTo(Money.of(25).toBigDecimal()));
+        assertFalse(body.has("supplier") || body.has("consumer"), "Client entities should not be embedded: " + body);
+    }
+
+    @Test
+    void testOrderViews_ShouldShowCurrentCounterpartyNames() throws Exception {
+        createOrder("renamed-order", supplier, consumer);
+        jdbcTemplate.update("UPDATE clients SET name = 'Renamed Supplier' WHERE id = ?", supplier.getId());
+
+        JsonNode orders = objectMapper.readTree(restTemplate.getForEntity("/api/orders", String.class).getBody());
+
+        assertEquals(1, orders.size());
+        assertEquals("Renamed Supplier", orders.get(0).get("supplierName").asText(), "Names should be joined at query time");
+    }
+
+    @Test
+    void testClientOrders_ShouldMergeBothDirectionsOnce() throws Exception {
+        Order sold = createOrder("client-sold", supplier, consumer);
+        createOrder("unrelated", consumer, other);
+        Order bought = createOrder("client-bought", other, supplier);
+        Order selfTrade = createOrder("client-self", supplier, supplier);
+
+        JsonNode orders = objectMapper.readTree(restTemplate.getForEntity(
+                "/api/orders/clients/" + supplier.getId() + "/orders", String.class).getBody());
+
+        List<Long> ids = new ArrayList<>();
+        orders.forEach(order -> ids.add(order.get("id").asLong()));
+        assertEquals(List.of(sold.getId(), bought.getId(), selfTrade.getId()), ids,
+                "Orders as supplier or consumer should be listed once each, in id order");
+    }
+
+    private Client createClient(String name, String email) {
+        return clientRepository.save(Client.builder()
+                .name(name)
+                .email(email)
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+    }
+
+    private Order createOrder(String name, Client from, Client to) {
+        return orderRepository.save(Order.builder()
+                .name(name)
+                .supplier(from)
+                .consumer(to)
+                .price(Money.of(25))
+                .build());
+    }
+}
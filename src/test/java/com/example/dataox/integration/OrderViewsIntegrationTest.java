@@ -0,0 +1,172 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.entities.Client;
+import com.example.dataox.entities.Order;
+import com.example.dataox.money.Money;
+import com.example.dataox.repo.ClientRepository;
+import com.example.dataox.repo.OrderRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The compact order views and the CBOR and Smile encodings: the side-table holds each referenced client
+ * once, invalid {@code view} and {@code include} combinations are rejected, and the binary formats carry
+ * the same content as JSON.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class OrderViewsIntegrationTest {
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final ObjectMapper json = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+
+    private Client alpha;
+    private Client beta;
+    private Client gamma;
+
+    @BeforeEach
+    void setUp() {
+        alpha = createClient("View Alpha", "view-alpha@example.com");
+        beta = createClient("View Beta", "view-beta@example.com");
+        gamma = createClient("View Gamma", "view-gamma@example.com");
+        createOrder("view-alpha-beta", alpha, beta);
+        createOrder("view-alpha-gamma", alpha, gamma);
+        createOrder("view-beta-alpha", beta, alpha);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testCompactWithClients_ShouldListEachClientOnce() throws Exception {
+        ResponseEntity<byte[]> response = get("/api/orders?view=compact&include=clients", MediaType.APPLICATION_JSON);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        String body = new String(response.getBody(), StandardCharsets.UTF_8);
+        JsonNode list = json.readTree(body);
+
+        assertEquals(3, list.get("items").size());
+        Set<Long> referenced = new TreeSet<>();
+        list.get("items").forEach(item -> {
+            assertFalse(item.has("supplierName") || item.has("supplier"), "Compact items reference clients by id: " + item);
+            referenced.add(item.get("supplierId").asLong());
+            referenced.add(item.get("consumerId").asLong());
+        });
+        List<Long> sideTable = new ArrayList<>();
+        list.get("clients").fieldNames().forEachRemaining(id -> sideTable.add(Long.parseLong(id)));
+        assertEquals(List.copyOf(referenced), sideTable, "The side-table should hold every referenced client");
+        for (Client client : List.of(alpha, beta, gamma)) {
+            assertEquals(client.getEmail(), list.get("clients").get(client.getId().toString()).get("email").asText());
+            assertEquals(1, body.split(client.getEmail(), -1).length - 1, client.getName() + " should appear once");
+        }
+    }
+
+    @Test
+    void testCompact_ShouldReferenceClientsByIdOnly() throws Exception {
+        JsonNode list = json.readTree(get("/api/orders?view=compact", MediaType.APPLICATION_JSON).getBody());
+        assertEquals(3, list.get("items").size());
+        assertFalse(list.has("clients"), "The side-table should only come with include=clients");
+        assertTrue(list.get("nextCursor").isNull());
+
+        JsonNode clientOrders = json.readTree(get("/api/orders/clients/" + gamma.getId() + "/orders?view=compact&include=clients",
+                MediaType.APPLICATION_JSON).getBody());
+        assertEquals(1, clientOrders.get("items").size());
+        assertEquals(2, clientOrders.get("clients").size(), "Only the clients of the listed order");
+    }
+
+    @Test
+    void testInvalidViews_ShouldBeRejected() {
+        Long orderId = orderRepository.findAll().get(0).getId();
+        for (String url : List.of(
+                "/api/orders?include=clients",
+                "/api/orders?view=default&include=clients",
+                "/api/orders?view=compact&include=suppliers",
+                "/api/orders?view=tiny",
+                "/api/orders/clients/" + alpha.getId() + "/orders?include=clients",
+                "/api/orders/" + orderId + "?view=tiny")) {
+            assertEquals(HttpStatus.BAD_REQUEST, get(url, MediaType.APPLICATION_JSON).getStatusCode(), url);
+        }
+    }
+
+    @Test
+    void testBinaryFormats_ShouldCarryTheSameContentAsJson() throws Exception {
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory()).enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        ObjectMapper smile = new ObjectMapper(new SmileFactory()).enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+        for (String url : List.of("/api/orders", "/api/orders?view=compact&include=clients", "/api/clients/" + alpha.getId())) {
+            JsonNode expected = json.readTree(get(url, MediaType.APPLICATION_JSON).getBody());
+
+            ResponseEntity<byte[]> cborResponse = get(url, CBOR);
+            assertTrue(CBOR.isCompatibleWith(cborResponse.getHeaders().getContentType()), url);
+            assertEquals(expected, cbor.readTree(cborResponse.getBody()), "CBOR should decode to the JSON content of " + url);
+
+            ResponseEntity<byte[]> smileResponse = get(url, SMILE);
+            assertTrue(SMILE.isCompatibleWith(smileResponse.getHeaders().getContentType()), url);
+            assertEquals(expected, smile.readTree(smileResponse.getBody()), "Smile should decode to the JSON content of " + url);
+        }
+    }
+
+    private ResponseEntity<byte[]> get(String url, MediaType accept) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(accept));
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), byte[].class);
+    }
+
+    private Client createClient(String name, String email) {
+        return clientRepository.save(Client.builder()
+                .name(name)
+                .email(email)
+                .profit(Money.ZERO)
+                .active(true)
+                .build());
+    }
+
+    private void createOrder(String name, Client from, Client to) {
+        orderRepository.save(Order.builder()
+                .name(name)
+                .supplier(from)
+                .consumer(to)
+                .price(Money.of(25))
+                .build());
+    }
+}
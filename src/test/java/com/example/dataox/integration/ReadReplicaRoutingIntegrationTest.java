@@ -0,0 +1,121 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.config.ReadYourWrites;
+import com.example.dataox.dto.ClientRequest;
+import com.example.dataox.dto.OrderCreateRequest;
+import com.example.dataox.entities.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Routes reads to a second in-memory H2 database that has the schema but never receives the writes, so
+ * every read that lands on it is visible as missing data. Writes and reads of callers holding the
+ * read-your-writes cookie must see the primary.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "datasource.replica.enabled=true",
+        "datasource.replica.url=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL,
+        "datasource.replica.driver-class-name=org.h2.Driver",
+        "datasource.replica.username=sa",
+        "datasource.replica.password=",
+        "datasource.replica.read-your-writes-window=5s",
+        "orders.delay.min=1s",
+        "orders.delay.max=1s"
+})
+class ReadReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void copySchemaToReplica() {
+        List<String> schema = jdbcTemplate.queryForList("SCRIPT NODATA", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        schema.forEach(replica::execute);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TestDatabase.clear(context);
+    }
+
+    @Test
+    void testReads_ShouldUseReplicaUnlessCallerWroteRecently() {
+        Client supplier = createClient("Replica Supplier", "replica-supplier@example.com");
+        Client consumer = createClient("Replica Consumer", "replica-consumer@example.com");
+
+        OrderCreateRequest request = new OrderCreateRequest();
+        request.setName("replica-order");
+        request.setSupplierId(supplier.getId());
+        request.setConsumerId(consumer.getId());
+        request.setPrice(new BigDecimal("100.00"));
+        ResponseEntity<String> created = restTemplate.postForEntity("/api/orders", request, String.class);
+        long answeredAt = System.currentTimeMillis();
+        assertTrue(created.getStatusCode().is2xxSuccessful(), "Order should be created: " + created.getBody());
+        String pin = created.getHeaders().getFirst(HttpHeaders.SET_COOKIE);
+        assertNotNull(pin, "A write should pin the caller to the primary");
+        long until = Long.parseLong(pin.substring(pin.indexOf('=') + 1, pin.indexOf(';')));
+        assertTrue(until >= answeredAt + 4_500,
+                "The window should start once the order is stored, not when the request arrived: " + (until - answeredAt));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM orders", Integer.class),
+                "Writes should go to the primary only");
+
+        assertEquals("[]", get("/api/orders", null).getBody(), "Reads without a pin should use the replica");
+        assertTrue(get("/api/orders", pin.substring(0, pin.indexOf(';'))).getBody().contains("replica-order"),
+                "Reads of a pinned caller should see its write");
+        String forged = ReadYourWrites.COOKIE_NAME + "=" + (System.currentTimeMillis() + 3_600_000);
+        assertEquals("[]", get("/api/orders", forged).getBody(), "A pin longer than the window should be ignored");
+
+        // Cached clients are loaded from the primary, so the replica's missing row is not cached.
+        assertEquals(HttpStatus.OK, get("/api/clients/" + supplier.getId(), null).getStatusCode(),
+                "Client lookups should be served from the cache");
+    }
+
+    private Client createClient(String name, String email) {
+        ClientRequest request = new ClientRequest();
+        request.setName(name);
+        request.setEmail(email);
+        request.setActive(true);
+        return restTemplate.postForEntity("/api/clients", request, Client.class).getBody();
+    }
+
+    private ResponseEntity<String> get(String url, String cookie) {
+        HttpHeaders headers = new HttpHeaders();
+        if (cookie != null) {
+            headers.set(HttpHeaders.COOKIE, cookie);
+        }
+        return restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
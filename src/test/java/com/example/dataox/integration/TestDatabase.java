@@ -0,0 +1,29 @@
+package com.example.dataox.integration;
+
+import com.example.dataox.index.ClientProfitIndex;
+import com.example.dataox.index.ClientSearchIndex;
+import com.example.dataox.services.ClientCache;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Removes the rows a test created. Deleting them directly publishes no change events, so the in-memory
+ * state derived from the clients table is rebuilt afterwards; otherwise deleted clients would stay in the
+ * profit index, the search index and the cache and show up in the next test. The order key filter cannot
+ * forget keys, and its false positives are confirmed against the table anyway.
+ */
+final class TestDatabase {
+    private TestDatabase() {
+    }
+
+    static void clear(ApplicationContext context) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM client_order_stats");
+        jdbcTemplate.update("DELETE FROM client_profit_shards");
+        jdbcTemplate.update("DELETE FROM orders");
+        jdbcTemplate.update("DELETE FROM clients");
+        context.getBean(ClientCache.class).invalidateAll();
+        context.getBean(ClientProfitIndex.class).rebuild();
+        context.getBean(ClientSearchIndex.class).rebuild();
+    }
+}
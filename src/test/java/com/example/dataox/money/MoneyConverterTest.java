@@ -0,0 +1,43 @@
+package com.example.dataox.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyConverterTest {
+    private final MoneyConverter converter = new MoneyConverter();
+
+    @Test
+    void testToColumn_ShouldWriteScaleTwo() {
+        assertEquals(new BigDecimal("-1000.00"), converter.convertToDatabaseColumn(Money.of(-1000)));
+        assertEquals(new BigDecimal("0.00"), converter.convertToDatabaseColumn(Money.ZERO));
+        assertEquals(new BigDecimal("92233720368547758.07"), converter.convertToDatabaseColumn(Money.ofCents(Long.MAX_VALUE)));
+        assertNull(converter.convertToDatabaseColumn(null));
+    }
+
+    @Test
+    void testToAttribute_ShouldAcceptAnyScaleUpToTwo() {
+        assertEquals(Money.ofCents(2500), converter.convertToEntityAttribute(new BigDecimal("25")));
+        assertEquals(Money.ofCents(2550), converter.convertToEntityAttribute(new BigDecimal("25.5")));
+        assertEquals(Money.ofCents(-1), converter.convertToEntityAttribute(new BigDecimal("-0.01")));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void testRoundTrip_ShouldPreserveCents() {
+        for (long cents : new long[]{0, 1, -1, 99_999, -100_000, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            Money money = Money.ofCents(cents);
+            assertEquals(money, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(money)));
+        }
+    }
+
+    @Test
+    void testToAttribute_ShouldRejectValuesOutsideMoney() {
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute(new BigDecimal("1.005")));
+        assertThrows(IllegalArgumentException.class, () -> converter.convertToEntityAttribute(new BigDecimal("1E+18")));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.dataox.money;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import jakarta.validation.constraints.Min;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link Min} on a {@link Money} must accept and reject exactly what it did on a {@link BigDecimal}, which is
+ * checked by validating both side by side through the validator registered in {@code META-INF/services}.
+ */
+class MoneyMinValidatorTest {
+    private static ValidatorFactory factory;
+    private static Validator validator;
+
+    record Floor(@Min(-1000) Money money, @Min(-1000) BigDecimal decimal) {
+    }
+
+    record Positive(@Min(1) Money money, @Min(1) BigDecimal decimal) {
+    }
+
+    record Huge(@Min(Long.MAX_VALUE) Money money) {
+    }
+
+    @BeforeAll
+    static void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    void testFloor_ShouldMatchBigDecimal() {
+        for (String amount : new String[]{"-1000.01", "-1000.00", "-999.99", "0", "1000000"}) {
+            BigDecimal decimal = new BigDecimal(amount);
+            Floor value = new Floor(Money.of(decimal), decimal);
+            assertEquals(validator.validateProperty(value, "decimal").isEmpty(), validator.validateProperty(value, "money").isEmpty(),
+                    "Money and BigDecimal should agree on " + amount);
+        }
+        assertFalse(validator.validate(new Floor(Money.of(new BigDecimal("-1000.01")), null)).isEmpty());
+        assertTrue(validator.validate(new Floor(Money.of(-1000), null)).isEmpty());
+    }
+
+    @Test
+    void testPositive_ShouldRejectFractionsBelowOne() {
+        for (String amount : new String[]{"0.99", "-0.01", "1.00", "1.01"}) {
+            BigDecimal decimal = new BigDecimal(amount);
+            Positive value = new Positive(Money.of(decimal), decimal);
+            assertEquals(validator.validateProperty(value, "decimal").isEmpty(), validator.validateProperty(value, "money").isEmpty(),
+                    "Money and BigDecimal should agree on " + amount);
+        }
+    }
+
+    @Test
+    void testNull_ShouldBeValid() {
+        assertTrue(validator.validate(new Positive(null, null)).isEmpty());
+    }
+
+    @Test
+    void testLargeMinimum_ShouldNotOverflow() {
+        assertFalse(validator.validate(new Huge(Money.ofCents(Long.MAX_VALUE))).isEmpty(),
+                "Even the largest amount is below Long.MAX_VALUE units");
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.dataox.money;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoneyTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    record Payment(Money amount) {
+    }
+
+    @Test
+    void testOf_ShouldKeepTwoDecimalPlaces() {
+        assertEquals(150, Money.of(new BigDecimal("1.5")).cents());
+        assertEquals(123, Money.of(new BigDecimal("1.230")).cents(), "Trailing zeros beyond the scale are not a loss");
+        assertEquals(100_000, Money.of(new BigDecimal("1E+3")).cents());
+        assertEquals(-100_000, Money.of(-1000).cents());
+        assertEquals(new BigDecimal("-0.05"), Money.ofCents(-5).toBigDecimal());
+        assertEquals("12.50", Money.of(new BigDecimal("12.5")).toString());
+        assertSame(Money.ZERO, Money.of(new BigDecimal("0.00")));
+    }
+
+    @Test
+    void testOf_ShouldRejectMoreDecimalPlaces() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1.234")));
+        assertEquals("Amount 1.234 must have at most 2 decimal places", ex.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Money.toCents(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void testArithmetic_ShouldRejectOverflow() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> Money.of(new BigDecimal("1E+20")));
+        assertEquals("Amount 100000000000000000000 is out of range", ex.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> Money.of(Long.MAX_VALUE));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofCents(Long.MIN_VALUE).minus(Money.ofCents(1)));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofCents(Long.MIN_VALUE).negate());
+        assertThrows(IllegalArgumentException.class, () -> Money.addExact(Long.MAX_VALUE, 1));
+        assertThrows(IllegalArgumentException.class, () -> Money.subtractExact(Long.MIN_VALUE, 1));
+
+        assertEquals(Money.ofCents(Long.MAX_VALUE), Money.of(BigDecimal.valueOf(Long.MAX_VALUE, 2)), "The largest amount should fit");
+    }
+
+    @Test
+    void testArithmetic_ShouldWorkOnCents() {
+        Money price = Money.of(new BigDecimal("19.99"));
+
+        assertEquals(Money.of(new BigDecimal("39.98")), price.plus(price));
+        assertEquals(Money.ZERO, price.minus(price));
+        assertEquals(-1, price.negate().signum());
+        assertTrue(price.negate().isLessThan(price));
+        assertEquals(0, Money.of(20).compareTo(Money.of(new BigDecimal("20.00"))));
+        assertEquals(Money.of(20).hashCode(), Money.of(new BigDecimal("20.00")).hashCode());
+    }
+
+    @Test
+    void testJson_ShouldRoundTripAsPlainDecimal() throws Exception {
+        String json = objectMapper.writeValueAsString(new Payment(Money.of(new BigDecimal("12.5"))));
+
+        assertEquals("{\"amount\":12.50}", json);
+        assertEquals(new Payment(Money.ofCents(1250)), objectMapper.readValue(json, Payment.class));
+        assertEquals(new Payment(Money.ofCents(-100_000)), objectMapper.readValue("{\"amount\":-1000}", Payment.class));
+        assertEquals(new Payment(Money.ofCents(705)), objectMapper.readValue("{\"amount\":\" 7.05 \"}", Payment.class),
+                "Amounts written as strings should be accepted");
+        assertEquals(new Payment(null), objectMapper.readValue("{\"amount\":null}", Payment.class));
+    }
+
+    @Test
+    void testJson_ShouldRejectInvalidAmounts() {
+        InvalidFormatException tooPrecise = assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"amount\":1.234}", Payment.class));
+        assertTrue(tooPrecise.getMessage().contains("at most 2 decimal places"), tooPrecise.getMessage());
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"amount\":1e30}", Payment.class));
+        assertThrows(InvalidFormatException.class, () -> objectMapper.readValue("{\"amount\":\"0.005\"}", Payment.class));
+    }
+}